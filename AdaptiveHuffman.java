@@ -0,0 +1,247 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * One-pass adaptive Huffman coding (algorithm FGK), for input whose alphabet and frequencies
+ * are not known in advance. Encoder and decoder each start from the same empty tree and
+ * update it identically after every character, so no seed or codebook is ever transmitted
+ * and any char can be encoded.
+ * <p>
+ * The tree always holds one zero-weight "not yet transmitted" (NYT) leaf. A character seen
+ * before is sent as its current code; a new one is sent as the NYT leaf's code followed by
+ * the raw 16-bit char, after which the NYT leaf splits into a new NYT leaf and a leaf for the
+ * character. The tree then has every node on the character's path incremented, first swapping
+ * each node with the highest-numbered node of equal weight, which keeps the sibling property
+ * and therefore a Huffman tree for the counts so far.
+ * <p>
+ * An instance is the shared state of one stream: it must see exactly the characters its peer
+ * sees, in order, and is not thread-safe. {@link AdaptiveHuffmanWriter} and {@link
+ * AdaptiveHuffmanReader} wrap an instance for streams.
+ */
+public class AdaptiveHuffman {
+
+    private static final int INITIAL_NODES = 64;
+    private static final int RAW_BITS = 16;
+
+    // Nodes are numbered in decreasing order of weight, root first, so node 0 is the root and
+    // siblings are adjacent. Swapping two nodes swaps their contents; parents stay with the
+    // numbers.
+    private long[] weight = new long[INITIAL_NODES];
+    private int[] symbol = new int[INITIAL_NODES];
+    private int[] left = new int[INITIAL_NODES];
+    private int[] right = new int[INITIAL_NODES];
+    private int[] parent = new int[INITIAL_NODES];
+    // leafOf[c] is the leaf of char c, or 0 (the root, never a char's leaf) if c is unseen.
+    private final int[] leafOf = new int[Character.MAX_VALUE + 1];
+    // Nodes of equal weight are numbered consecutively and form a block; block[n] is the block
+    // of node n and leader[b] the lowest-numbered node of block b. Unused block ids are kept on
+    // a stack.
+    private int[] block = new int[INITIAL_NODES];
+    private int[] leader = new int[INITIAL_NODES];
+    private int[] freeBlocks = new int[INITIAL_NODES];
+    private int freeCount;
+    private int blocks = 1;
+    private int nyt;
+    private int nodes = 1;
+    private int[] path = new int[INITIAL_NODES];
+
+    /**
+     * Constructs the initial model, whose tree is a lone NYT leaf.
+     */
+    public AdaptiveHuffman() {
+        symbol[0] = -1;
+        parent[0] = -1;
+    }
+
+    /**
+     * Compresses a string with a fresh model.
+     *
+     * @param input the characters to compress, can be empty
+     * @return the encoding
+     * @throws IllegalArgumentException if input is null
+     */
+    public static PackedBits compress(CharSequence input) {
+        if (input == null) {
+            throw new IllegalArgumentException("input is null");
+        }
+        AdaptiveHuffman model = new AdaptiveHuffman();
+        BitWriter writer = new BitWriter(input.length() + 16);
+        for (int i = 0; i < input.length(); i++) {
+            model.encode(input.charAt(i), writer);
+        }
+        return writer.toPackedBits();
+    }
+
+    /**
+     * Decompresses the output of {@link #compress(CharSequence)}.
+     *
+     * @param input the encoding
+     * @return the decoded string
+     * @throws IllegalArgumentException if input is null or not decodable
+     */
+    public static String decompress(PackedBits input) {
+        if (input == null) {
+            throw new IllegalArgumentException("input is null");
+        }
+        AdaptiveHuffman model = new AdaptiveHuffman();
+        BitReader reader = new BitReader(input);
+        StringBuilder output = new StringBuilder();
+        while (reader.remaining() > 0) {
+            output.append(model.decode(reader));
+        }
+        return output.toString();
+    }
+
+    /**
+     * Writes the code of a character and updates the model.
+     *
+     * @param c   the character to encode
+     * @param out where to write its code
+     */
+    public void encode(char c, BitWriter out) {
+        int node = leafOf[c] != 0 ? leafOf[c] : nyt;
+        // Collect the path bottom-up, then write it top-down.
+        int length = 0;
+        for (; node != 0; node = parent[node]) {
+            if (length == path.length) {
+                path = Arrays.copyOf(path, 2 * length);
+            }
+            path[length++] = right[parent[node]] == node ? 1 : 0;
+        }
+        while (length > 0) {
+            int n = Math.min(length, 64);
+            long bits = 0;
+            for (int i = 0; i < n; i++) {
+                bits = (bits << 1) | path[--length];
+            }
+            out.write(bits, n);
+        }
+        if (leafOf[c] == 0) {
+            out.write(c, RAW_BITS);
+        }
+        update(c);
+    }
+
+    /**
+     * Reads the code of a character and updates the model.
+     *
+     * @param in where to read the code from
+     * @return the decoded character
+     * @throws IllegalArgumentException if in ends inside a code
+     */
+    public char decode(BitReader in) {
+        try {
+            int node = 0;
+            while (symbol[node] == -1 && node != nyt) {
+                node = in.readBit() == 0 ? left[node] : right[node];
+            }
+            char c = node == nyt ? (char) in.read(RAW_BITS) : (char) symbol[node];
+            update(c);
+            return c;
+        } catch (NoSuchElementException e) {
+            throw new IllegalArgumentException("input ends inside a code", e);
+        }
+    }
+
+    private void update(char c) {
+        int q = leafOf[c];
+        if (q == 0) {
+            // Split the NYT leaf into an internal node over a new NYT leaf and c's leaf.
+            ensureCapacity(nodes + 2);
+            int old = nyt;
+            int leaf = nodes;
+            nyt = nodes + 1;
+            nodes += 2;
+            symbol[old] = -1;
+            right[old] = leaf;
+            left[old] = nyt;
+            initLeaf(leaf, c, old);
+            initLeaf(nyt, -1, old);
+            block[leaf] = block[old];
+            block[nyt] = block[old];
+            leafOf[c] = leaf;
+            q = leaf;
+        }
+        while (q != -1) {
+            int first = leader[block[q]];
+            if (first == parent[q]) {
+                // q is the sibling of the NYT leaf, so its parent has the same weight and is
+                // numbered just before it: both move up to the next block together.
+                increment(first);
+                increment(q);
+                q = parent[first];
+            } else {
+                if (first != q) {
+                    swap(q, first);
+                    q = first;
+                }
+                increment(q);
+                q = parent[q];
+            }
+        }
+    }
+
+    // Adds one to the weight of a node that leads its block, moving it to the block before.
+    private void increment(int node) {
+        int b = block[node];
+        if (node + 1 < nodes && block[node + 1] == b) {
+            leader[b] = node + 1;
+        } else {
+            freeBlocks[freeCount++] = b;
+        }
+        weight[node]++;
+        if (node > 0 && weight[node - 1] == weight[node]) {
+            block[node] = block[node - 1];
+        } else {
+            b = freeCount > 0 ? freeBlocks[--freeCount] : blocks++;
+            leader[b] = node;
+            block[node] = b;
+        }
+    }
+
+    private void initLeaf(int node, int c, int p) {
+        weight[node] = 0;
+        symbol[node] = c;
+        parent[node] = p;
+    }
+
+    private void swap(int i, int j) {
+        long w = weight[i];
+        weight[i] = weight[j];
+        weight[j] = w;
+        int s = symbol[i];
+        symbol[i] = symbol[j];
+        symbol[j] = s;
+        int l = left[i];
+        left[i] = left[j];
+        left[j] = l;
+        int r = right[i];
+        right[i] = right[j];
+        right[j] = r;
+        relink(i);
+        relink(j);
+    }
+
+    private void relink(int node) {
+        if (symbol[node] == -1) {
+            parent[left[node]] = node;
+            parent[right[node]] = node;
+        } else {
+            leafOf[symbol[node]] = node;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > weight.length) {
+            int grown = Math.max(capacity, 2 * weight.length);
+            weight = Arrays.copyOf(weight, grown);
+            symbol = Arrays.copyOf(symbol, grown);
+            left = Arrays.copyOf(left, grown);
+            right = Arrays.copyOf(right, grown);
+            parent = Arrays.copyOf(parent, grown);
+            block = Arrays.copyOf(block, grown);
+            leader = Arrays.copyOf(leader, grown);
+            freeBlocks = Arrays.copyOf(freeBlocks, grown);
+        }
+    }
+}
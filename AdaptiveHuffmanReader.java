@@ -0,0 +1,53 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * A {@link Reader} that decodes the frames written by {@link AdaptiveHuffmanWriter} from an
+ * {@link InputStream}, updating its model in step with the writer's. Only one frame is held
+ * in memory at a time.
+ */
+public class AdaptiveHuffmanReader extends Reader {
+
+    private final AdaptiveHuffman model = new AdaptiveHuffman();
+    private final Frames frames;
+    private boolean closed;
+
+    /**
+     * Constructs a reader.
+     *
+     * @param in the stream to read frames from
+     * @throws IllegalArgumentException if in is null
+     */
+    public AdaptiveHuffmanReader(InputStream in) {
+        if (in == null) {
+            throw new IllegalArgumentException("input stream is null");
+        }
+        this.frames = new Frames(in);
+    }
+
+    /**
+     * Decodes characters.
+     *
+     * @throws IOException if the underlying stream fails, ends inside a frame, holds bits that
+     *                     are not decodable, or this reader is closed
+     */
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("reader is closed");
+        }
+        return frames.read(cbuf, off, len, model::decode);
+    }
+
+    /**
+     * Closes the underlying stream.
+     *
+     * @throws IOException if the underlying stream fails
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        frames.close();
+    }
+}
@@ -0,0 +1,133 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class AdaptiveHuffmanTest {
+
+    private static String readAll(Reader reader) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buf = new char[1000];
+        for (int n; (n = reader.read(buf)) != -1; ) {
+            sb.append(buf, 0, n);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testRoundTrip() {
+        for (String s : new String[] {"", "a", "aaaaaaaa", "abracadabra",
+                "the quick brown fox jumps over the lazy dog", "\u0000\uffff\u4e2d\u6587"}) {
+            assertEquals(s, AdaptiveHuffman.decompress(AdaptiveHuffman.compress(s)));
+        }
+    }
+
+    @Test
+    public void testFirstCharacterIsRaw() {
+        assertEquals("0000000001100001", AdaptiveHuffman.compress("a").toString());
+        // The second 'a' is the leaf right of the root.
+        assertEquals("00000000011000011", AdaptiveHuffman.compress("aa").toString());
+    }
+
+    @Test
+    public void testRandomAlphabets() {
+        Random random = new Random(19);
+        for (int trial = 0; trial < 20; trial++) {
+            int alphabet = 1 + random.nextInt(trial < 10 ? 30 : 5000);
+            char[] chars = new char[1 + random.nextInt(20000)];
+            for (int i = 0; i < chars.length; i++) {
+                int r = random.nextInt(alphabet);
+                chars[i] = (char) (0x100 + r * r / alphabet);
+            }
+            String s = new String(chars);
+            assertEquals(s, AdaptiveHuffman.decompress(AdaptiveHuffman.compress(s)));
+        }
+    }
+
+    @Test
+    public void testCloseToStaticHuffman() {
+        StringBuilder sb = new StringBuilder();
+        Random random = new Random(2);
+        for (int i = 0; i < 100000; i++) {
+            sb.append("aaaaaaabbbbccd".charAt(random.nextInt(14)));
+        }
+        String s = sb.toString();
+        long adaptive = AdaptiveHuffman.compress(s).bitLength();
+        long fixed = new Huffman(s).compressPacked(s).bitLength();
+        // The tree keeps a zero-weight NYT leaf beside the rarest character, costing 'd' one
+        // extra bit, about 7000 bits here.
+        assertTrue(adaptive > fixed);
+        assertTrue(adaptive < fixed * 1.05);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testTruncated() {
+        PackedBits bits = AdaptiveHuffman.compress("abcdefg");
+        AdaptiveHuffman.decompress(PackedBits.of(bits.toByteArray(), bits.bitLength() - 3));
+    }
+
+    @Test
+    public void testWriterAndReader() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        StringBuilder expected = new StringBuilder();
+        try (AdaptiveHuffmanWriter writer = new AdaptiveHuffmanWriter(bytes, 16)) {
+            for (int i = 0; i < 500; i++) {
+                String message = "message " + i + " \u00e9\u4e2d;";
+                writer.write(message);
+                expected.append(message);
+                if (i % 7 == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        AdaptiveHuffmanReader reader =
+                new AdaptiveHuffmanReader(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(expected.toString(), readAll(reader));
+    }
+
+    @Test (expected = IOException.class)
+    public void testReaderTruncatedFrame() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (AdaptiveHuffmanWriter writer = new AdaptiveHuffmanWriter(bytes)) {
+            writer.write("some text that spans a few bytes");
+        }
+        byte[] all = bytes.toByteArray();
+        byte[] cut = Arrays.copyOf(all, all.length - 2);
+        readAll(new AdaptiveHuffmanReader(new ByteArrayInputStream(cut)));
+    }
+
+    @Test
+    public void testWriterCloseClosesFailingStream() throws IOException {
+        boolean[] closed = new boolean[1];
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        Writer writer = new AdaptiveHuffmanWriter(failing);
+        writer.write("some text");
+        try {
+            writer.close();
+            fail("closed onto a failing stream");
+        } catch (IOException e) {
+            assertTrue(closed[0]);
+        }
+        closed[0] = false;
+        writer.close();
+        assertFalse(closed[0]);
+    }
+}
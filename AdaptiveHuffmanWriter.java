@@ -0,0 +1,102 @@
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * A {@link Writer} that compresses the characters written to it onto an {@link OutputStream}
+ * with {@link AdaptiveHuffman}, so no seed is needed and any char can be written.
+ * <p>
+ * Output uses the frame layout of {@link HuffmanWriter}: a 4-byte big-endian bit length
+ * followed by that many packed bits. A frame is emitted whenever the pending bits reach the
+ * chunk size and on every {@link #flush()}, so a live stream can be flushed after each
+ * message; the model carries over from frame to frame. Read the frames back with {@link
+ * AdaptiveHuffmanReader}.
+ */
+public class AdaptiveHuffmanWriter extends Writer {
+
+    private final AdaptiveHuffman model = new AdaptiveHuffman();
+    private final DataOutputStream out;
+    private final BitWriter bits;
+    private final long chunkBits;
+    private boolean closed;
+
+    /**
+     * Constructs a writer with the default chunk size.
+     *
+     * @param out the stream to write frames to
+     * @throws IllegalArgumentException if out is null
+     */
+    public AdaptiveHuffmanWriter(OutputStream out) {
+        this(out, HuffmanWriter.DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Constructs a writer.
+     *
+     * @param out        the stream to write frames to
+     * @param chunkBytes the payload size at which a frame is emitted
+     * @throws IllegalArgumentException if out is null, or chunkBytes is not between 1 and
+     *                                  {@link HuffmanWriter#MAX_CHUNK_BYTES}
+     */
+    public AdaptiveHuffmanWriter(OutputStream out, int chunkBytes) {
+        if (out == null) {
+            throw new IllegalArgumentException("output stream is null");
+        }
+        Frames.checkChunkBytes(chunkBytes);
+        this.out = new DataOutputStream(out);
+        this.bits = new BitWriter(chunkBytes + 64);
+        this.chunkBits = 8L * chunkBytes;
+    }
+
+    /**
+     * Encodes characters.
+     *
+     * @throws IOException if the underlying stream fails or this writer is closed
+     */
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("writer is closed");
+        }
+        for (int i = off; i < off + len; i++) {
+            model.encode(cbuf[i], bits);
+            if (bits.bitLength() >= chunkBits) {
+                Frames.write(out, bits);
+            }
+        }
+    }
+
+    /**
+     * Emits the pending characters as a frame, then flushes the underlying stream.
+     *
+     * @throws IOException if the underlying stream fails or this writer is closed
+     */
+    @Override
+    public void flush() throws IOException {
+        if (closed) {
+            throw new IOException("writer is closed");
+        }
+        Frames.write(out, bits);
+        out.flush();
+    }
+
+    /**
+     * Emits the pending characters and closes the underlying stream, which is closed even if
+     * the last frame cannot be written.
+     *
+     * @throws IOException if the underlying stream fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            Frames.write(out, bits);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap whose {@link #add(Comparable, Object)} returns a {@link Handle} to the new
+ * element. A handle records the element's current position in the heap, so {@link
+ * #decreaseKey(Handle, Comparable)}, {@link #remove(Handle)} and {@link #contains(Handle)} are
+ * answered without hashing or comparing values. Values are only carried along: they may be
+ * null and need not be distinct, since elements are told apart by their handles.
+ * <p>
+ * Keys do not have to be distinct, and ties are broken arbitrarily.
+ *
+ * @param <Key> the type of priorities for this heap
+ * @param <V>   the type of values in this heap
+ */
+public class AddressableMinHeap<Key extends Comparable<Key>, V> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // 0-indexed: the children of i are 2i + 1 and 2i + 2.
+    Handle<Key, V>[] heap;
+    private int size;
+
+    /**
+     * A reference to one element of an {@link AddressableMinHeap}. It stays valid until the
+     * element is extracted or removed.
+     */
+    public static final class Handle<Key, V> {
+        private Key key;
+        private final V value;
+        // The element's slot, or -1 once it has left the heap.
+        int index;
+
+        Handle(Key key, V value, int index) {
+            this.key = key;
+            this.value = value;
+            this.index = index;
+        }
+
+        /**
+         * @return the element's current key
+         */
+        public Key key() {
+            return key;
+        }
+
+        /**
+         * @return the element's value
+         */
+        public V value() {
+            return value;
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public AddressableMinHeap() {
+        this.heap = (Handle<Key, V>[]) new Handle[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Runtime: O(1)
+     *
+     * @return the number of elements in the min-heap
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Runtime: O(1)
+     *
+     * @return true if the heap is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Runtime: O(1)
+     *
+     * @param handle a handle returned by {@link #add(Comparable, Object)}, may be null
+     * @return true if the handle's element is still in this min-heap
+     */
+    public boolean contains(Handle<Key, V> handle) {
+        return handle != null && handle.index >= 0 && handle.index < size
+                && heap[handle.index] == handle;
+    }
+
+    /**
+     * Runtime: O(log n)
+     *
+     * @param key   the priority key to associate with the value, must be non-null
+     * @param value the value to insert into the heap, may be null or already in the heap
+     * @return a handle to the new element
+     * @throws IllegalArgumentException if key is null
+     */
+    public Handle<Key, V> add(Key key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("key is null");
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size + (size >> 1));
+        }
+        Handle<Key, V> handle = new Handle<>(key, value, size);
+        siftUp(size++, handle);
+        return handle;
+    }
+
+    /**
+     * Updates the key of an element to a smaller key.
+     * <p>
+     * Runtime: O(log n)
+     *
+     * @param handle the handle of the element whose key to update
+     * @param newKey the key to update the element with
+     * @throws NoSuchElementException   if the handle's element is not in this heap
+     * @throws IllegalArgumentException if newKey is null or newKey > key(handle)
+     */
+    public void decreaseKey(Handle<Key, V> handle, Key newKey) {
+        checkContains(handle);
+        if (newKey == null) {
+            throw new IllegalArgumentException("newKey is null");
+        }
+        if (newKey.compareTo(handle.key) > 0) {
+            throw new IllegalArgumentException("newKey is greater than old key");
+        }
+        handle.key = newKey;
+        siftUp(handle.index, handle);
+    }
+
+    /**
+     * Runtime: O(1)
+     *
+     * @return the handle of an element with the smallest key in the min-heap
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public Handle<Key, V> peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("heap is empty");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Removes an element with the smallest key in the min-heap.
+     * <p>
+     * Runtime: O(log n)
+     *
+     * @return the handle of the removed element
+     * @throws NoSuchElementException if the min-heap is empty
+     */
+    public Handle<Key, V> extractMin() {
+        Handle<Key, V> min = peek();
+        remove(min);
+        return min;
+    }
+
+    /**
+     * Removes an element from the min-heap.
+     * <p>
+     * Runtime: O(log n)
+     *
+     * @param handle the handle of the element to remove
+     * @throws NoSuchElementException if the handle's element is not in this heap
+     */
+    public void remove(Handle<Key, V> handle) {
+        checkContains(handle);
+        int index = handle.index;
+        handle.index = -1;
+        Handle<Key, V> last = heap[--size];
+        heap[size] = null;
+        if (index == size) {
+            return;
+        }
+        // The last element may belong above or below the vacated slot.
+        if (index > 0 && last.key.compareTo(heap[(index - 1) >>> 1].key) < 0) {
+            siftUp(index, last);
+        } else {
+            siftDown(index, last);
+        }
+    }
+
+    private void checkContains(Handle<Key, V> handle) {
+        if (!contains(handle)) {
+            throw new NoSuchElementException("handle not in heap");
+        }
+    }
+
+    private void place(int index, Handle<Key, V> handle) {
+        heap[index] = handle;
+        handle.index = index;
+    }
+
+    private void siftUp(int index, Handle<Key, V> handle) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent].key.compareTo(handle.key) <= 0) {
+                break;
+            }
+            place(index, heap[parent]);
+            index = parent;
+        }
+        place(index, handle);
+    }
+
+    private void siftDown(int index, Handle<Key, V> handle) {
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1].key.compareTo(heap[child].key) < 0) {
+                child++;
+            }
+            if (heap[child].key.compareTo(handle.key) >= 0) {
+                break;
+            }
+            place(index, heap[child]);
+            index = child;
+        }
+        place(index, handle);
+    }
+}
@@ -0,0 +1,140 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class AddressableMinHeapTest {
+
+    @Test
+    public void testIsEmpty() {
+        AddressableMinHeap<Integer, String> minHeap = new AddressableMinHeap<>();
+        assertTrue(minHeap.isEmpty());
+        minHeap.add(1, "a");
+        assertFalse(minHeap.isEmpty());
+        assertEquals(1, minHeap.size());
+    }
+
+    @Test
+    public void testDuplicateAndNullValues() {
+        AddressableMinHeap<Integer, String> minHeap = new AddressableMinHeap<>();
+        AddressableMinHeap.Handle<Integer, String> first = minHeap.add(3, "a");
+        AddressableMinHeap.Handle<Integer, String> second = minHeap.add(2, "a");
+        AddressableMinHeap.Handle<Integer, String> none = minHeap.add(4, null);
+        minHeap.add(5, null);
+        assertEquals(4, minHeap.size());
+        minHeap.decreaseKey(none, 1);
+        assertSame(none, minHeap.extractMin());
+        assertFalse(minHeap.contains(none));
+        assertSame(second, minHeap.extractMin());
+        assertSame(first, minHeap.extractMin());
+        assertNull(minHeap.extractMin().value());
+    }
+
+    @Test
+    public void testRemove() {
+        AddressableMinHeap<Integer, String> minHeap = new AddressableMinHeap<>();
+        List<AddressableMinHeap.Handle<Integer, String>> handles = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            handles.add(minHeap.add(i, "v" + i));
+        }
+        minHeap.remove(handles.get(0));
+        minHeap.remove(handles.get(7));
+        minHeap.remove(handles.get(19));
+        assertEquals(17, minHeap.size());
+        for (int i = 1; i < 19; i++) {
+            if (i != 7) {
+                assertEquals(i, (int) minHeap.extractMin().key());
+            }
+        }
+        assertTrue(minHeap.isEmpty());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testAddNullKey() {
+        new AddressableMinHeap<Integer, String>().add(null, "a");
+    }
+
+    @Test (expected = NoSuchElementException.class)
+    public void testRemoveTwice() {
+        AddressableMinHeap<Integer, String> minHeap = new AddressableMinHeap<>();
+        AddressableMinHeap.Handle<Integer, String> handle = minHeap.add(1, "a");
+        minHeap.remove(handle);
+        minHeap.remove(handle);
+    }
+
+    @Test (expected = NoSuchElementException.class)
+    public void testForeignHandle() {
+        AddressableMinHeap<Integer, String> minHeap = new AddressableMinHeap<>();
+        minHeap.add(1, "a");
+        AddressableMinHeap<Integer, String> other = new AddressableMinHeap<>();
+        other.decreaseKey(minHeap.peek(), 0);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testDecreaseBiggerNewKey() {
+        AddressableMinHeap<Integer, String> minHeap = new AddressableMinHeap<>();
+        minHeap.decreaseKey(minHeap.add(1, "a"), 2);
+    }
+
+    @Test (expected = NoSuchElementException.class)
+    public void testExtractEmpty() {
+        new AddressableMinHeap<Integer, String>().extractMin();
+    }
+
+    @Test
+    public void testDijkstra() {
+        Random random = new Random(3);
+        int n = 300;
+        int[][] weight = new int[n][n];
+        for (int[] row : weight) {
+            for (int j = 0; j < n; j++) {
+                row[j] = random.nextInt(10) == 0 ? 1 + random.nextInt(100) : 0;
+            }
+        }
+
+        int[] dist = new int[n];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        dist[0] = 0;
+        AddressableMinHeap<Integer, Integer> minHeap = new AddressableMinHeap<>();
+        List<AddressableMinHeap.Handle<Integer, Integer>> handles = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            handles.add(minHeap.add(dist[v], v));
+        }
+        while (!minHeap.isEmpty()) {
+            AddressableMinHeap.Handle<Integer, Integer> min = minHeap.extractMin();
+            int u = min.value();
+            if (dist[u] == Integer.MAX_VALUE) {
+                break;
+            }
+            for (int v = 0; v < n; v++) {
+                if (weight[u][v] > 0 && dist[u] + weight[u][v] < dist[v]) {
+                    dist[v] = dist[u] + weight[u][v];
+                    minHeap.decreaseKey(handles.get(v), dist[v]);
+                }
+            }
+        }
+
+        // Bellman-Ford reference.
+        int[] expected = new int[n];
+        Arrays.fill(expected, Integer.MAX_VALUE);
+        expected[0] = 0;
+        for (boolean changed = true; changed; ) {
+            changed = false;
+            for (int u = 0; u < n; u++) {
+                for (int v = 0; v < n; v++) {
+                    if (weight[u][v] > 0 && expected[u] != Integer.MAX_VALUE
+                            && expected[u] + weight[u][v] < expected[v]) {
+                        expected[v] = expected[u] + weight[u][v];
+                        changed = true;
+                    }
+                }
+            }
+        }
+        assertArrayEquals(expected, dist);
+    }
+}
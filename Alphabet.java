@@ -0,0 +1,99 @@
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The symbols of an alphabet in ascending order, each with its positive frequency. This is
+ * the input every tree construction works from.
+ */
+final class Alphabet {
+
+    final int[] symbols;
+    final int[] freqs;
+
+    Alphabet(int[] symbols, int[] freqs) {
+        this.symbols = symbols;
+        this.freqs = freqs;
+    }
+
+    /**
+     * Counts the characters of a seed.
+     *
+     * @param seed the String from which to deduce the alphabet and frequencies
+     * @return the alphabet
+     * @throws IllegalArgumentException seed is null, seed is empty, or resulting alphabet only
+     *                                  has 1 character
+     */
+    static Alphabet fromSeed(CharSequence seed) {
+        if (seed == null) {
+            throw new IllegalArgumentException("seed is null");
+        }
+        if (seed.length() == 0) {
+            throw new IllegalArgumentException("seed is empty");
+        }
+        int[] counts = CharHistogram.count(seed);
+        int[] symbols = CharHistogram.symbols(counts);
+        if (symbols.length == 1) {
+            throw new IllegalArgumentException("resulting alphabet only has 1 character");
+        }
+        return new Alphabet(symbols, CharHistogram.frequencies(counts, symbols));
+    }
+
+    /**
+     * Copies a frequency map.
+     *
+     * @param alphabet a frequency map for characters in the alphabet
+     * @return the alphabet
+     * @throws IllegalArgumentException if the alphabet is null, empty, has fewer than 2
+     *                                  characters, or has any non-positive frequencies
+     */
+    static Alphabet fromMap(Map<Character, Integer> alphabet) {
+        if (alphabet == null) {
+            throw new IllegalArgumentException("alphabet is null");
+        }
+        if (alphabet.size() == 0) {
+            throw new IllegalArgumentException("alphabet is empty");
+        }
+        if (alphabet.keySet().size() < 2) {
+            throw new IllegalArgumentException("alphabet has fewer than 2 characters");
+        }
+        int[] symbols = new int[alphabet.size()];
+        int i = 0;
+        for (Character c : alphabet.keySet()) {
+            symbols[i++] = c;
+        }
+        Arrays.sort(symbols);
+        int[] freqs = new int[symbols.length];
+        for (i = 0; i < symbols.length; i++) {
+            Integer freq = alphabet.get((char) symbols[i]);
+            if (freq == null || freq <= 0) {
+                throw new IllegalArgumentException("non-positive frequency");
+            }
+            freqs[i] = freq;
+        }
+        return new Alphabet(symbols, freqs);
+    }
+
+    int size() {
+        return symbols.length;
+    }
+
+    long total() {
+        long total = 0;
+        for (int freq : freqs) {
+            total += freq;
+        }
+        return total;
+    }
+
+    /**
+     * @param lengths the code length of each symbol, in symbol order
+     * @return the total number of bits needed to encode every occurrence of every symbol
+     */
+    double weightedLength(byte[] lengths) {
+        double weighted = 0;
+        for (int i = 0; i < freqs.length; i++) {
+            weighted += freqs[i] * (double) lengths[i];
+        }
+        return weighted;
+    }
+}
@@ -1,3 +1,5 @@
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Set;
 import java.util.NoSuchElementException;
 
@@ -8,8 +10,9 @@ import java.util.NoSuchElementException;
  * Your task will be to implement this abstract class in BinaryMinHeapImpl.java
  * <p>
  * Your constructor should not take in any arguments, and it should initialize an
- * empty heap. You do NOT have to implement build-heap, instead building a heap
- * will be done via mutiple calls to "add()"
+ * empty heap. A heap can be built with multiple calls to "add()", or all at once
+ * with "addAll()", which implementations can override to run build-heap in linear
+ * time.
  * <p>
  * As always, feel free to add package private fields and helper methods.
  *
@@ -53,6 +56,41 @@ public interface BinaryMinHeap<Key extends Comparable<Key>, V> {
      */
     void add(Key key, V value);
 
+    /**
+     * Inserts a batch of entries. Either all entries are added or, if any is
+     * rejected, none is.
+     * <p>
+     * The default implementation checks the whole batch, then calls
+     * {@link #add(Comparable, Object)} for each entry. Array-backed heaps
+     * override it with bottom-up build-heap, which sifts each internal node
+     * down once instead of sifting every new entry up.
+     * <p>
+     * Runtime: expected O(m log(n + m)) for m entries; O(n + m) with build-heap
+     *
+     * @param entries the key/value pairs to insert, under the same rules as
+     *                {@link #add(Comparable, Object)}
+     * @throws IllegalArgumentException if entries is null, any key is null, or
+     *                                  any value is already in the min-heap or
+     *                                  appears twice in entries
+     */
+    default void addAll(Collection<? extends Entry<Key, V>> entries) {
+        if (entries == null) {
+            throw new IllegalArgumentException("entries is null");
+        }
+        HashSet<V> batch = new HashSet<>();
+        for (Entry<Key, V> e : entries) {
+            if (e.key == null) {
+                throw new IllegalArgumentException("key is null");
+            }
+            if (containsValue(e.value) || !batch.add(e.value)) {
+                throw new IllegalArgumentException("value is already in the heap");
+            }
+        }
+        for (Entry<Key, V> e : entries) {
+            add(e.key, e.value);
+        }
+    }
+
     /**
      * Updates the key of a particular value in the min-heap
      * to a smaller key.
@@ -1,3 +1,4 @@
+import java.util.Collection;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.ArrayList;
@@ -103,6 +104,42 @@ public class BinaryMinHeapImpl<Key extends Comparable<Key>, V> implements Binary
 
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addAll(Collection<? extends Entry<Key, V>> entries) {
+        if (entries == null) {
+            throw new IllegalArgumentException("entries is null");
+        }
+        // Validate the whole batch first, applying add()'s rules for null values.
+        HashSet<V> batch = new HashSet<>();
+        boolean nullPresent = containsValue(null);
+        int nullAdds = nullAddCounter;
+        for (Entry<Key, V> e : entries) {
+            if (e.key == null) {
+                throw new IllegalArgumentException("key is null");
+            }
+            if (e.value == null) {
+                if (nullPresent && nullAdds++ != 0) {
+                    throw new IllegalArgumentException("value is already in the heap");
+                }
+                nullPresent = true;
+            } else if (containsValue(e.value) || !batch.add(e.value)) {
+                throw new IllegalArgumentException("value is already in the heap");
+            }
+        }
+        nullAddCounter = nullAdds;
+        heap.ensureCapacity(heap.size() + entries.size());
+        for (Entry<Key, V> e : entries) {
+            valueIndex.put(e.value, heap.size());
+            heap.add(e);
+        }
+        for (int i = size() / 2; i >= 1; i--) {
+            minHeapify(this.heap, this.valueIndex, i);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -208,15 +208,48 @@ public class BinaryMinHeapImplTest {
         assertEquals(min.value, "e");
     }
 
+    @Test
+    public void testAddAll() {
+        BinaryMinHeapImpl<Integer, String> minHeap = new BinaryMinHeapImpl<>();
+        minHeap.add(4, "d");
+        ArrayList<BinaryMinHeap.Entry<Integer, String>> batch = new ArrayList<>();
+        batch.add(new BinaryMinHeap.Entry<>(5, "e"));
+        batch.add(new BinaryMinHeap.Entry<>(2, "b"));
+        batch.add(new BinaryMinHeap.Entry<>(3, "c"));
+        batch.add(new BinaryMinHeap.Entry<>(1, "a"));
+        minHeap.addAll(batch);
+        assertEquals(5, minHeap.size());
+        for (int i = 1; i < minHeap.heap.size(); i++) {
+            assertEquals(i, (int) minHeap.valueIndex.get(minHeap.heap.get(i).value));
+        }
+        assertEquals("a", minHeap.extractMin().value);
+        assertEquals("b", minHeap.extractMin().value);
+        assertEquals("c", minHeap.extractMin().value);
+        assertEquals("d", minHeap.extractMin().value);
+        assertEquals("e", minHeap.extractMin().value);
+    }
 
+    @Test
+    public void testAddAllRejectsWholeBatch() {
+        BinaryMinHeapImpl<Integer, String> minHeap = new BinaryMinHeapImpl<>();
+        minHeap.add(1, "a");
+        ArrayList<BinaryMinHeap.Entry<Integer, String>> batch = new ArrayList<>();
+        batch.add(new BinaryMinHeap.Entry<>(2, "b"));
+        batch.add(new BinaryMinHeap.Entry<>(3, "b"));
+        try {
+            minHeap.addAll(batch);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertEquals(1, minHeap.size());
+            assertFalse(minHeap.containsValue("b"));
+        }
+    }
 
-
-
-
-
-
-
-
-
-
+    @Test (expected = IllegalArgumentException.class)
+    public void testAddAllNullKey() {
+        BinaryMinHeapImpl<Integer, String> minHeap = new BinaryMinHeapImpl<>();
+        ArrayList<BinaryMinHeap.Entry<Integer, String>> batch = new ArrayList<>();
+        batch.add(new BinaryMinHeap.Entry<>(null, "b"));
+        minHeap.addAll(batch);
+    }
 }
@@ -0,0 +1,175 @@
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a bit string written by {@link BitWriter}, most significant bit first. Bytes are
+ * loaded into a left-aligned 64-bit accumulator, so {@link #peek(int)} can look up to
+ * {@link #MAX_PEEK} bits ahead without touching the underlying buffer.
+ */
+public class BitReader {
+
+    /**
+     * The largest number of bits that can be peeked at once.
+     */
+    public static final int MAX_PEEK = 57;
+
+    ByteBuffer in;
+    private long bytesLeft;
+    private long bitsLeft;
+    private long acc;
+    private int accBits;
+
+    /**
+     * Constructs a reader over the given bits.
+     *
+     * @param bits the bits to read
+     * @throws IllegalArgumentException if bits is null
+     */
+    public BitReader(PackedBits bits) {
+        this(bits == null ? null : ByteBuffer.wrap(bits.data), bits == null ? 0 : bits.bitLength);
+    }
+
+    /**
+     * Constructs a reader over the bits of {@code bits} from {@code fromBit} (inclusive) to
+     * {@code toBit} (exclusive).
+     *
+     * @param bits    the bits to read
+     * @param fromBit the offset of the first bit to read
+     * @param toBit   the offset just past the last bit to read
+     * @throws IllegalArgumentException if bits is null or the range is out of bounds
+     */
+    public BitReader(PackedBits bits, long fromBit, long toBit) {
+        this(startingByte(bits, fromBit, toBit), toBit - (fromBit & ~7L));
+        skip((int) (fromBit & 7));
+    }
+
+    private static ByteBuffer startingByte(PackedBits bits, long fromBit, long toBit) {
+        if (bits == null) {
+            throw new IllegalArgumentException("input is null");
+        }
+        if (fromBit < 0 || fromBit > toBit || toBit > bits.bitLength) {
+            throw new IllegalArgumentException("bit range out of bounds");
+        }
+        int offset = (int) (fromBit >>> 3);
+        return ByteBuffer.wrap(bits.data, offset, bits.data.length - offset);
+    }
+
+    /**
+     * Constructs a reader over {@code bitLength} bits of the given buffer, starting at its
+     * position.
+     *
+     * @param in        the buffer holding the packed bits
+     * @param bitLength the number of meaningful bits
+     * @throws IllegalArgumentException if in is null or bitLength is negative
+     */
+    public BitReader(ByteBuffer in, long bitLength) {
+        if (in == null) {
+            throw new IllegalArgumentException("input is null");
+        }
+        if (bitLength < 0) {
+            throw new IllegalArgumentException("negative bit length");
+        }
+        this.in = in;
+        this.bitsLeft = bitLength;
+        this.bytesLeft = PackedBits.byteLength(bitLength);
+    }
+
+    private void refill() {
+        while (accBits <= 56 && bytesLeft > 0) {
+            if (!in.hasRemaining()) {
+                in = underflow(in);
+            }
+            acc |= (in.get() & 0xFFL) << (56 - accBits);
+            accBits += 8;
+            bytesLeft--;
+        }
+    }
+
+    /**
+     * Called when the buffer runs out before {@code bitLength} bits have been read. The default
+     * implementation treats this as truncated input.
+     *
+     * @param empty the exhausted buffer
+     * @return a buffer holding the next bytes of the bit string
+     * @throws IllegalArgumentException if there is no more input
+     */
+    protected ByteBuffer underflow(ByteBuffer empty) {
+        throw new IllegalArgumentException("input is shorter than its bit length");
+    }
+
+    /**
+     * @return the number of bits not yet consumed
+     */
+    public long remaining() {
+        return bitsLeft;
+    }
+
+    /**
+     * Returns the next {@code n} bits without consuming them. Bits past the end of the input
+     * read as zero, so callers must check {@link #remaining()} before trusting them.
+     *
+     * @param n the number of bits to look at, between 1 and {@link #MAX_PEEK}
+     * @return the next n bits, right-aligned
+     */
+    public long peek(int n) {
+        if (accBits < n) {
+            refill();
+        }
+        return acc >>> (64 - n);
+    }
+
+    /**
+     * Consumes {@code n} bits that have already been peeked at.
+     *
+     * @param n the number of bits to consume, at most {@link #MAX_PEEK}
+     * @throws NoSuchElementException if fewer than n bits remain
+     */
+    public void skip(int n) {
+        if (n > bitsLeft) {
+            throw new NoSuchElementException("not enough bits");
+        }
+        if (accBits < n) {
+            refill();
+        }
+        acc <<= n;
+        accBits -= n;
+        bitsLeft -= n;
+    }
+
+    /**
+     * Reads the next {@code n} bits.
+     *
+     * @param n the number of bits to read, between 0 and 64
+     * @return the bits read, right-aligned
+     * @throws IllegalArgumentException if n is out of range
+     * @throws NoSuchElementException   if fewer than n bits remain
+     */
+    public long read(int n) {
+        if (n < 0 || n > 64) {
+            throw new IllegalArgumentException("length out of range");
+        }
+        if (n > bitsLeft) {
+            throw new NoSuchElementException("not enough bits");
+        }
+        if (n == 0) {
+            return 0;
+        }
+        if (n > MAX_PEEK) {
+            long high = read(n - 32);
+            return (high << 32) | read(32);
+        }
+        long bits = peek(n);
+        skip(n);
+        return bits;
+    }
+
+    /**
+     * Reads the next bit.
+     *
+     * @return 0 or 1
+     * @throws NoSuchElementException if no bits remain
+     */
+    public int readBit() {
+        return (int) read(1);
+    }
+}
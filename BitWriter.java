@@ -0,0 +1,220 @@
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Writes variable-length bit codes most significant bit first. Bits are gathered in a 64-bit
+ * accumulator and spilled to the underlying buffer a whole word at a time, so the cost of a
+ * {@link #write(long, int)} is a shift and an or in the common case.
+ * <p>
+ * A writer either owns a heap buffer that grows as needed, or writes into a caller-supplied
+ * {@link ByteBuffer} starting at its position.
+ */
+public class BitWriter {
+
+    ByteBuffer out;
+    private final boolean growable;
+    private long acc;
+    private int accBits;
+    private long bitLength;
+    private int start;
+
+    /**
+     * Constructs a writer backed by a growable heap buffer.
+     */
+    public BitWriter() {
+        this(64);
+    }
+
+    /**
+     * Constructs a writer backed by a growable heap buffer.
+     *
+     * @param initialBytes the initial capacity of the buffer
+     * @throws IllegalArgumentException if initialBytes is negative
+     */
+    public BitWriter(int initialBytes) {
+        if (initialBytes < 0) {
+            throw new IllegalArgumentException("negative capacity");
+        }
+        this.out = ByteBuffer.allocate(Math.max(initialBytes, 8));
+        this.growable = true;
+    }
+
+    /**
+     * Constructs a writer that packs bits into the given buffer, starting at its position.
+     *
+     * @param out the buffer to write to
+     * @throws IllegalArgumentException if out is null
+     */
+    public BitWriter(ByteBuffer out) {
+        if (out == null) {
+            throw new IllegalArgumentException("buffer is null");
+        }
+        this.out = out;
+        this.growable = false;
+        this.start = out.position();
+    }
+
+    static long mask(int length) {
+        return length == 64 ? -1L : (1L << length) - 1;
+    }
+
+    /**
+     * Appends the low {@code length} bits of {@code bits}, most significant first.
+     *
+     * @param bits   the bits to write, right-aligned
+     * @param length the number of bits to write, between 0 and 64
+     * @throws IllegalArgumentException if length is out of range
+     * @throws BufferOverflowException  if the writer is not growable and its buffer is full
+     */
+    public void write(long bits, int length) {
+        if (length < 0 || length > 64) {
+            throw new IllegalArgumentException("length out of range");
+        }
+        if (length == 0) {
+            return;
+        }
+        append(bits & mask(length), length);
+    }
+
+    /**
+     * Appends a code without checking its arguments; the encoding loops' fast path.
+     *
+     * @param bits   the bits to write, right-aligned, with nothing set above the low length bits
+     * @param length the number of bits to write, between 1 and 64
+     */
+    void append(long bits, int length) {
+        int free = 64 - accBits;
+        if (length < free) {
+            acc = (acc << length) | bits;
+            accBits += length;
+        } else {
+            int rest = length - free;
+            acc = free == 64 ? bits >>> rest : (acc << free) | (bits >>> rest);
+            spill();
+            acc = bits & mask(rest);
+            accBits = rest;
+        }
+        bitLength += length;
+    }
+
+    /**
+     * Appends every bit of {@code bits}.
+     *
+     * @param bits the bits to append
+     * @throws IllegalArgumentException if bits is null
+     */
+    public void write(PackedBits bits) {
+        if (bits == null) {
+            throw new IllegalArgumentException("bits is null");
+        }
+        ByteBuffer in = ByteBuffer.wrap(bits.data);
+        long remaining = bits.bitLength;
+        int i = 0;
+        while (remaining >= 64) {
+            write(in.getLong(i), 64);
+            i += 8;
+            remaining -= 64;
+        }
+        while (remaining >= 8) {
+            write(bits.data[i++], 8);
+            remaining -= 8;
+        }
+        if (remaining > 0) {
+            write((bits.data[i] & 0xFF) >>> (8 - remaining), (int) remaining);
+        }
+    }
+
+    private void spill() {
+        if (out.remaining() < 8) {
+            out = overflow(out);
+        }
+        // The word goes out most significant byte first whatever order the buffer is set to.
+        ByteOrder order = out.order();
+        if (order == ByteOrder.BIG_ENDIAN) {
+            out.putLong(acc);
+        } else {
+            out.order(ByteOrder.BIG_ENDIAN).putLong(acc);
+            out.order(order);
+        }
+    }
+
+    /**
+     * Called when the buffer has no room for the next word. The default implementation grows
+     * a heap buffer and rejects a caller-supplied one.
+     *
+     * @param full the buffer that has run out of room
+     * @return a buffer with at least 8 bytes remaining
+     * @throws BufferOverflowException if the writer is not growable
+     */
+    protected ByteBuffer overflow(ByteBuffer full) {
+        if (!growable) {
+            throw new BufferOverflowException();
+        }
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(full.capacity() * 2, full.position() + 8));
+        full.flip();
+        bigger.put(full);
+        return bigger;
+    }
+
+    /**
+     * @return the number of bits written so far
+     */
+    public long bitLength() {
+        return bitLength;
+    }
+
+    /**
+     * Writes out any bits still held in the accumulator, padding the last byte with zeroes.
+     * Call this once all codes have been written; later writes start on a fresh byte.
+     *
+     * @throws BufferOverflowException if the writer is not growable and its buffer is full
+     */
+    public void flush() {
+        int bytes = (accBits + 7) >>> 3;
+        long aligned = accBits == 0 ? 0 : acc << (64 - accBits);
+        for (int i = 0; i < bytes; i++) {
+            if (!out.hasRemaining()) {
+                out = overflow(out);
+            }
+            out.put((byte) (aligned >>> (56 - 8 * i)));
+        }
+        acc = 0;
+        accBits = 0;
+    }
+
+    /**
+     * Flushes the writer and copies out everything written since construction or the last
+     * {@link #reset()}.
+     *
+     * @return the bits written
+     * @throws IllegalStateException if more than one {@link #flush()} left padding in the data
+     */
+    public PackedBits toPackedBits() {
+        flush();
+        if (PackedBits.byteLength(bitLength) != out.position() - start) {
+            throw new IllegalStateException("data was flushed more than once");
+        }
+        byte[] data = new byte[(int) PackedBits.byteLength(bitLength)];
+        ByteBuffer view = out.duplicate();
+        view.flip();
+        view.position(start);
+        view.get(data);
+        return new PackedBits(data, bitLength);
+    }
+
+    /**
+     * Starts a new bit string. A growable buffer is cleared; a caller-supplied buffer keeps
+     * what was written and the new bit string starts at its current position. Pending bits
+     * that were not flushed are discarded.
+     */
+    public void reset() {
+        if (growable) {
+            out.clear();
+        }
+        start = out.position();
+        acc = 0;
+        accBits = 0;
+        bitLength = 0;
+    }
+}
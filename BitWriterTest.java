@@ -0,0 +1,86 @@
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class BitWriterTest {
+
+    @Test
+    public void testWriteOrder() {
+        BitWriter writer = new BitWriter();
+        writer.write(1, 1);
+        writer.write(0, 2);
+        writer.write(5, 3);
+        PackedBits bits = writer.toPackedBits();
+        assertEquals(6, bits.bitLength());
+        assertEquals("100101", bits.toString());
+        assertArrayEquals(new byte[] {(byte) 0x94}, bits.toByteArray());
+    }
+
+    @Test
+    public void testWriteAcrossWords() {
+        BitWriter writer = new BitWriter();
+        writer.write(0x7, 3);
+        writer.write(-1L, 64);
+        writer.write(0, 61);
+        long[] words = writer.toPackedBits().toLongArray();
+        assertEquals(2, words.length);
+        assertEquals(-1L, words[0]);
+        assertEquals(0x7L << 61, words[1]);
+    }
+
+    @Test
+    public void testRoundTripRandomCodes() {
+        Random random = new Random(42);
+        long[] values = new long[1000];
+        int[] lengths = new int[1000];
+        BitWriter writer = new BitWriter(1);
+        for (int i = 0; i < values.length; i++) {
+            lengths[i] = random.nextInt(65);
+            values[i] = random.nextLong() & BitWriter.mask(lengths[i]);
+            writer.write(values[i], lengths[i]);
+        }
+        BitReader reader = new BitReader(writer.toPackedBits());
+        for (int i = 0; i < values.length; i++) {
+            assertEquals(values[i], reader.read(lengths[i]));
+        }
+        assertEquals(0, reader.remaining());
+    }
+
+    @Test
+    public void testAppendPackedBits() {
+        BitWriter first = new BitWriter();
+        first.write(0x2AAAAAAAAAAAAL, 50);
+        first.write(0x5, 3);
+        BitWriter second = new BitWriter();
+        second.write(1, 1);
+        second.write(first.toPackedBits());
+        assertEquals("1" + first.toPackedBits().toString(), second.toPackedBits().toString());
+    }
+
+    @Test (expected = BufferOverflowException.class)
+    public void testFixedBufferOverflow() {
+        BitWriter writer = new BitWriter(ByteBuffer.allocate(1));
+        writer.write(0, 9);
+        writer.flush();
+    }
+
+    @Test (expected = NoSuchElementException.class)
+    public void testReadPastEnd() {
+        BitReader reader = new BitReader(PackedBits.of(new byte[] {0}, 3));
+        reader.read(4);
+    }
+
+    @Test
+    public void testReset() {
+        BitWriter writer = new BitWriter();
+        writer.write(3, 2);
+        writer.reset();
+        writer.write(1, 2);
+        assertEquals("01", writer.toPackedBits().toString());
+    }
+}
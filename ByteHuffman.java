@@ -0,0 +1,248 @@
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A Huffman codec over the 256 byte values, for binary data and encoded text that would
+ * otherwise have to be widened to a {@code String}. Bytes are counted into a dense 256-entry
+ * histogram and encoded and decoded through 256-entry tables, straight from and to {@code
+ * byte[]} and {@link ByteBuffer}.
+ * <p>
+ * A codec built from a seed gives every byte value a code, with the values missing from the
+ * seed counted once, so any input can be compressed; bytes the seed did not predict just cost
+ * more bits. Codes are canonical, so {@link #codeLengthHeader()} describes a codec completely.
+ * Only a codec rebuilt by {@link #fromHeader(byte[])} from a header naming fewer than 256
+ * bytes can lack codes, and only such a codec rejects input as not compressible.
+ * <p>
+ * Instances are immutable and can be shared by any number of threads.
+ */
+public final class ByteHuffman {
+
+    private static final int ALPHABET = 256;
+
+    final Codebook codebook;
+    final TableDecoder decoder;
+    // Indexed by unsigned byte value; a length of 0 marks a byte without a code.
+    final long[] byteCodes = new long[ALPHABET];
+    final byte[] byteLengths = new byte[ALPHABET];
+
+    /**
+     * Constructs a codec from the byte frequencies of a seed.
+     *
+     * @param seed the bytes from which to deduce the frequencies, can be empty
+     * @throws IllegalArgumentException if seed is null
+     */
+    public ByteHuffman(byte[] seed) {
+        this(count(seed == null ? null : ByteBuffer.wrap(seed)));
+    }
+
+    /**
+     * Constructs a codec from the byte frequencies of a seed's remaining bytes. The seed's
+     * position is not changed.
+     *
+     * @param seed the bytes from which to deduce the frequencies, can be empty
+     * @throws IllegalArgumentException if seed is null
+     */
+    public ByteHuffman(ByteBuffer seed) {
+        this(count(seed));
+    }
+
+    private ByteHuffman(int[] counts) {
+        this(histogramCodebook(counts));
+    }
+
+    private ByteHuffman(Codebook codebook) {
+        this.codebook = codebook;
+        this.decoder = new TableDecoder(codebook);
+        for (int i = 0; i < codebook.size(); i++) {
+            byteCodes[codebook.symbols[i]] = codebook.codes[i];
+            byteLengths[codebook.symbols[i]] = codebook.lengths[i];
+        }
+    }
+
+    /**
+     * Rebuilds a codec from the output of {@link #codeLengthHeader()}.
+     *
+     * @param header a code-length header
+     * @return the codec the header describes
+     * @throws IllegalArgumentException if the header is null, malformed, or names a symbol
+     *                                  that is not a byte value
+     */
+    public static ByteHuffman fromHeader(byte[] header) {
+        if (header == null) {
+            throw new IllegalArgumentException("header is null");
+        }
+        Codebook codebook = Codebook.fromHeader(ByteBuffer.wrap(header));
+        if (codebook.symbols[codebook.size() - 1] >= ALPHABET) {
+            throw new IllegalArgumentException("header symbol is not a byte");
+        }
+        return new ByteHuffman(codebook);
+    }
+
+    private static int[] count(ByteBuffer seed) {
+        if (seed == null) {
+            throw new IllegalArgumentException("seed is null");
+        }
+        int[] counts = new int[ALPHABET];
+        if (seed.hasArray()) {
+            byte[] array = seed.array();
+            int end = seed.arrayOffset() + seed.limit();
+            for (int i = seed.arrayOffset() + seed.position(); i < end; i++) {
+                counts[array[i] & 0xff]++;
+            }
+        } else {
+            for (int i = seed.position(); i < seed.limit(); i++) {
+                counts[seed.get(i) & 0xff]++;
+            }
+        }
+        return counts;
+    }
+
+    private static Codebook histogramCodebook(int[] counts) {
+        int[] symbols = new int[ALPHABET];
+        int[] freqs = new int[ALPHABET];
+        for (int b = 0; b < ALPHABET; b++) {
+            symbols[b] = b;
+            freqs[b] = Math.max(1, counts[b]);
+        }
+        return Codebook.canonical(symbols, TwoQueue.codeLengths(freqs));
+    }
+
+    /**
+     * Serializes this codec's code lengths, from which {@link #fromHeader(byte[])} rebuilds an
+     * identical codec.
+     *
+     * @return the header
+     */
+    public byte[] codeLengthHeader() {
+        return codebook.toHeader();
+    }
+
+    /**
+     * @param b a byte value
+     * @return the length in bits of the byte's code
+     */
+    public int codeLength(byte b) {
+        return byteLengths[b & 0xff];
+    }
+
+    /**
+     * Compresses bytes.
+     *
+     * @param input the bytes to compress, can be empty
+     * @return the packed encoding
+     * @throws IllegalArgumentException if input is null, or contains a byte without a code,
+     *                                  which only a codec built from a header can lack
+     */
+    public PackedBits compress(byte[] input) {
+        if (input == null) {
+            throw new IllegalArgumentException("null input");
+        }
+        return compress(ByteBuffer.wrap(input));
+    }
+
+    /**
+     * Compresses a buffer's remaining bytes, advancing its position to its limit.
+     *
+     * @param input the bytes to compress, can be empty
+     * @return the packed encoding
+     * @throws IllegalArgumentException if input is null, or contains a byte without a code,
+     *                                  which only a codec built from a header can lack
+     */
+    public PackedBits compress(ByteBuffer input) {
+        if (input == null) {
+            throw new IllegalArgumentException("null input");
+        }
+        BitWriter writer = new BitWriter(Math.max(16, input.remaining() / 2));
+        encode(input, writer);
+        return writer.toPackedBits();
+    }
+
+    /**
+     * Encodes a buffer's remaining bytes onto a writer, advancing the buffer's position to its
+     * limit.
+     *
+     * @throws IllegalArgumentException if input contains a byte without a code; bytes before
+     *                                  it have been encoded, and input's position is left at
+     *                                  that byte
+     */
+    void encode(ByteBuffer input, BitWriter writer) {
+        if (input.hasArray()) {
+            byte[] array = input.array();
+            int start = input.arrayOffset() + input.position();
+            int end = input.arrayOffset() + input.limit();
+            for (int i = start; i < end; i++) {
+                int b = array[i] & 0xff;
+                int length = byteLengths[b];
+                if (length == 0) {
+                    input.position(i - input.arrayOffset());
+                    throw new IllegalArgumentException("Not compressible byte");
+                }
+                writer.append(byteCodes[b], length);
+            }
+            input.position(input.limit());
+        } else {
+            while (input.hasRemaining()) {
+                int b = input.get() & 0xff;
+                int length = byteLengths[b];
+                if (length == 0) {
+                    input.position(input.position() - 1);
+                    throw new IllegalArgumentException("Not compressible byte");
+                }
+                writer.append(byteCodes[b], length);
+            }
+        }
+    }
+
+    /**
+     * Decompresses bytes.
+     *
+     * @param input the packed encoding
+     * @return the decoded bytes
+     * @throws IllegalArgumentException if input is null or not decodable
+     */
+    public byte[] decompress(PackedBits input) {
+        if (input == null) {
+            throw new IllegalArgumentException("input is null");
+        }
+        BitReader reader = new BitReader(input);
+        byte[] out = new byte[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(16,
+                input.bitLength() / 4))];
+        int n = 0;
+        while (reader.remaining() > 0) {
+            if (n == out.length) {
+                out = Arrays.copyOf(out, (int) Math.min(Integer.MAX_VALUE - 8, 2L * n));
+            }
+            out[n++] = (byte) decoder.decode(reader);
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Decompresses bytes into a buffer, advancing its position past them.
+     *
+     * @param input the packed encoding
+     * @param out   where to put the decoded bytes
+     * @return the number of bytes decoded
+     * @throws IllegalArgumentException if input or out is null, or input is not decodable
+     * @throws BufferOverflowException  if out fills up before input is exhausted
+     */
+    public int decompress(PackedBits input, ByteBuffer out) {
+        if (input == null) {
+            throw new IllegalArgumentException("input is null");
+        }
+        if (out == null) {
+            throw new IllegalArgumentException("output buffer is null");
+        }
+        BitReader reader = new BitReader(input);
+        int n = 0;
+        while (reader.remaining() > 0) {
+            if (!out.hasRemaining()) {
+                throw new BufferOverflowException();
+            }
+            out.put((byte) decoder.decode(reader));
+            n++;
+        }
+        return n;
+    }
+}
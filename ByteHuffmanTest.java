@@ -0,0 +1,119 @@
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class ByteHuffmanTest {
+
+    @Test
+    public void testRoundTrip() {
+        byte[] text = "na\u00efve caf\u00e9, \u4e2d\u6587 and emoji \ud83d\ude00, plain ascii".repeat(50)
+                .getBytes(StandardCharsets.UTF_8);
+        ByteHuffman huff = new ByteHuffman(text);
+        PackedBits bits = huff.compress(text);
+        assertTrue(bits.byteLength() < text.length * 3 / 4);
+        assertArrayEquals(text, huff.decompress(bits));
+    }
+
+    @Test
+    public void testBytesOutsideSeed() {
+        ByteHuffman huff = new ByteHuffman(new byte[] {0, 0, 0, 1});
+        byte[] data = new byte[4096];
+        new Random(23).nextBytes(data);
+        assertArrayEquals(data, huff.decompress(huff.compress(data)));
+        assertTrue(huff.codeLength((byte) 0) < huff.codeLength((byte) 200));
+        assertArrayEquals(new byte[0], new ByteHuffman(new byte[0]).decompress(
+                new ByteHuffman(new byte[0]).compress(new byte[0])));
+    }
+
+    @Test
+    public void testByteBuffers() {
+        byte[] data = "abracadabra".getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+        direct.put(data).flip();
+        ByteHuffman huff = new ByteHuffman(direct);
+        assertEquals(0, direct.position());
+        PackedBits fromDirect = huff.compress(direct);
+        assertFalse(direct.hasRemaining());
+        ByteBuffer slice = ByteBuffer.wrap("xxabracadabra".getBytes(StandardCharsets.US_ASCII));
+        slice.position(2);
+        assertEquals(fromDirect.toString(), huff.compress(slice.slice()).toString());
+
+        ByteBuffer out = ByteBuffer.allocate(data.length);
+        assertEquals(data.length, huff.decompress(fromDirect, out));
+        assertArrayEquals(data, out.array());
+    }
+
+    @Test (expected = BufferOverflowException.class)
+    public void testDecompressIntoSmallBuffer() {
+        ByteHuffman huff = new ByteHuffman(new byte[] {1, 2, 3});
+        huff.decompress(huff.compress(new byte[] {1, 2, 3}), ByteBuffer.allocate(2));
+    }
+
+    @Test
+    public void testHeaderRoundTrip() {
+        byte[] data = new byte[10000];
+        Random random = new Random(5);
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (random.nextGaussian() * 20);
+        }
+        ByteHuffman huff = new ByteHuffman(data);
+        ByteHuffman copy = ByteHuffman.fromHeader(huff.codeLengthHeader());
+        assertArrayEquals(data, copy.decompress(huff.compress(data)));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testHeaderWithCharSymbols() {
+        ByteHuffman.fromHeader(new Huffman("\u0100\u0101\u0101").codeLengthHeader());
+    }
+
+    @Test
+    public void testPartialHeaderRejectsMissingBytes() {
+        byte[] header = new Huffman("aab", Huffman.Construction.TWO_QUEUE).codeLengthHeader();
+        ByteHuffman huff = ByteHuffman.fromHeader(header);
+        assertEquals(0, huff.codeLength((byte) 'c'));
+        byte[] data = {'a', 'b', 'c', 'a'};
+        ByteBuffer heap = ByteBuffer.wrap(data);
+        try {
+            huff.compress(heap);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertEquals(2, heap.position());
+        }
+        ByteBuffer direct = ByteBuffer.allocateDirect(data.length).put(data).flip();
+        try {
+            huff.compress(direct);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertEquals(2, direct.position());
+        }
+        assertArrayEquals(new byte[] {'b', 'a'},
+                huff.decompress(huff.compress(new byte[] {'b', 'a'})));
+    }
+
+    @Test
+    public void testNullArguments() {
+        ByteHuffman huff = new ByteHuffman(new byte[] {1, 2});
+        try {
+            huff.decompress(null, ByteBuffer.allocate(1));
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertEquals("input is null", expected.getMessage());
+        }
+        try {
+            huff.decompress(huff.compress(new byte[] {1}), null);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertEquals("output buffer is null", expected.getMessage());
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testNullSeed() {
+        new ByteHuffman((byte[]) null);
+    }
+}
@@ -0,0 +1,106 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts character frequencies into a dense {@code int[65536]} indexed by char, so counting
+ * costs one array increment per character with no boxing or allocation. Seeds of at least
+ * {@link #PARALLEL_THRESHOLD} characters are split across the common {@link ForkJoinPool},
+ * each task counting into its own histogram, and the histograms are summed as tasks join.
+ */
+final class CharHistogram {
+
+    static final int PARALLEL_THRESHOLD = 1 << 20;
+
+    private static final int ALPHABET = Character.MAX_VALUE + 1;
+
+    private CharHistogram() {
+    }
+
+    /**
+     * @param seed the characters to count
+     * @return the number of occurrences of each char, indexed by char
+     */
+    static int[] count(CharSequence seed) {
+        int length = seed.length();
+        if (length < PARALLEL_THRESHOLD) {
+            return countRange(seed, 0, length);
+        }
+        int pieces = 4 * ForkJoinPool.getCommonPoolParallelism();
+        int grain = Math.max(PARALLEL_THRESHOLD / 4, length / pieces + 1);
+        return ForkJoinPool.commonPool().invoke(new CountTask(seed, 0, length, grain));
+    }
+
+    private static int[] countRange(CharSequence seed, int from, int to) {
+        int[] counts = new int[ALPHABET];
+        for (int i = from; i < to; i++) {
+            counts[seed.charAt(i)]++;
+        }
+        return counts;
+    }
+
+    /**
+     * @param counts a histogram from {@link #count(CharSequence)}
+     * @return the chars that occur at least once, in ascending order
+     */
+    static int[] symbols(int[] counts) {
+        int n = 0;
+        for (int count : counts) {
+            if (count > 0) {
+                n++;
+            }
+        }
+        int[] symbols = new int[n];
+        n = 0;
+        for (int c = 0; c < counts.length; c++) {
+            if (counts[c] > 0) {
+                symbols[n++] = c;
+            }
+        }
+        return symbols;
+    }
+
+    /**
+     * @param counts  a histogram from {@link #count(CharSequence)}
+     * @param symbols the chars to look up
+     * @return the count of each char in symbols, in the same order
+     */
+    static int[] frequencies(int[] counts, int[] symbols) {
+        int[] freqs = new int[symbols.length];
+        for (int i = 0; i < symbols.length; i++) {
+            freqs[i] = counts[symbols[i]];
+        }
+        return freqs;
+    }
+
+    private static class CountTask extends RecursiveTask<int[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final CharSequence seed;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        CountTask(CharSequence seed, int from, int to, int grain) {
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= grain) {
+                return countRange(seed, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            CountTask right = new CountTask(seed, mid, to, grain);
+            right.fork();
+            int[] counts = new CountTask(seed, from, mid, grain).compute();
+            int[] other = right.join();
+            for (int c = 0; c < ALPHABET; c++) {
+                counts[c] += other[c];
+            }
+            return counts;
+        }
+    }
+}
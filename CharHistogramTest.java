@@ -0,0 +1,32 @@
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class CharHistogramTest {
+
+    @Test
+    public void testCountSmall() {
+        int[] counts = CharHistogram.count("abracadabra");
+        assertEquals(5, counts['a']);
+        assertEquals(2, counts['b']);
+        assertEquals(0, counts['z']);
+        int[] symbols = CharHistogram.symbols(counts);
+        assertArrayEquals(new int[] {'a', 'b', 'c', 'd', 'r'}, symbols);
+        assertArrayEquals(new int[] {5, 2, 1, 1, 2}, CharHistogram.frequencies(counts, symbols));
+    }
+
+    @Test
+    public void testParallelMatchesSequential() {
+        Random random = new Random(5);
+        StringBuilder sb = new StringBuilder();
+        int[] expected = new int[Character.MAX_VALUE + 1];
+        for (int i = 0; i < 3 * CharHistogram.PARALLEL_THRESHOLD + 17; i++) {
+            char c = (char) (random.nextInt(300) * random.nextInt(200));
+            sb.append(c);
+            expected[c]++;
+        }
+        assertArrayEquals(expected, CharHistogram.count(sb));
+    }
+}
@@ -0,0 +1,226 @@
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * A Huffman codec whose symbols are Unicode code points rather than {@code char}s, so a
+ * supplementary character such as an emoji is one symbol with one code instead of two
+ * surrogates. An unpaired surrogate in the input is its own symbol and round-trips unchanged.
+ * <p>
+ * Alphabets over the full code point range are sparse, so symbols are indexed by an
+ * open-addressing primitive map from code point to codebook slot rather than a dense table:
+ * memory stays proportional to the number of distinct symbols, and encoding a symbol is one
+ * or two probes of adjacent slots. Decoding uses the same multi-level tables as {@link
+ * Huffman}. Codes are canonical, built with the linear-time two-queue construction.
+ * <p>
+ * Instances are immutable and can be shared by any number of threads.
+ */
+public final class CodePointHuffman {
+
+    final Codebook codebook;
+    final TableDecoder decoder;
+    final IntIntMap index;
+    final long sum;
+    final double expected;
+
+    /**
+     * Constructs a codec from the code point frequencies of a seed.
+     *
+     * @param seed the text from which to deduce the alphabet and frequencies
+     * @throws IllegalArgumentException seed is null, seed is empty, or resulting alphabet only
+     *                                  has 1 code point
+     */
+    public CodePointHuffman(CharSequence seed) {
+        this(count(seed), null);
+    }
+
+    /**
+     * Constructs a codec from a frequency map of code points.
+     *
+     * @param alphabet a frequency map for code points in the alphabet
+     * @throws IllegalArgumentException if the alphabet is null, has fewer than 2 code points,
+     *                                  or has any non-positive frequencies or keys that are not
+     *                                  code points
+     */
+    public CodePointHuffman(Map<Integer, Integer> alphabet) {
+        this(count(alphabet), null);
+    }
+
+    private CodePointHuffman(IntIntMap counts, Codebook header) {
+        if (header == null) {
+            int[] symbols = counts.sortedKeys();
+            int[] freqs = new int[symbols.length];
+            for (int i = 0; i < symbols.length; i++) {
+                freqs[i] = counts.get(symbols[i], 0);
+            }
+            this.codebook = Codebook.canonical(symbols, TwoQueue.codeLengths(freqs));
+            double weighted = 0;
+            long total = 0;
+            for (int i = 0; i < freqs.length; i++) {
+                weighted += (double) freqs[i] * codebook.lengths[i];
+                total += freqs[i];
+            }
+            this.expected = weighted;
+            this.sum = total;
+        } else {
+            this.codebook = header;
+            double weighted = 0;
+            for (byte length : header.lengths) {
+                weighted += length * Math.pow(2, -length);
+            }
+            this.expected = weighted;
+            this.sum = 1;
+        }
+        this.decoder = new TableDecoder(codebook);
+        this.index = new IntIntMap(codebook.size());
+        for (int i = 0; i < codebook.size(); i++) {
+            index.put(codebook.symbols[i], i);
+        }
+    }
+
+    /**
+     * Rebuilds a codec from the output of {@link #codeLengthHeader()}. Frequencies are not
+     * part of the header, so the expected encoding length assumes each symbol's probability is
+     * {@code 2^-length}.
+     *
+     * @param header a code-length header
+     * @return the codec the header describes
+     * @throws IllegalArgumentException if the header is null, malformed, or names a symbol
+     *                                  that is not a code point
+     */
+    public static CodePointHuffman fromHeader(byte[] header) {
+        if (header == null) {
+            throw new IllegalArgumentException("header is null");
+        }
+        Codebook codebook = Codebook.fromHeader(ByteBuffer.wrap(header));
+        if (codebook.symbols[codebook.size() - 1] > Character.MAX_CODE_POINT) {
+            throw new IllegalArgumentException("header symbol is not a code point");
+        }
+        return new CodePointHuffman(null, codebook);
+    }
+
+    private static IntIntMap count(CharSequence seed) {
+        if (seed == null) {
+            throw new IllegalArgumentException("seed is null");
+        }
+        if (seed.length() == 0) {
+            throw new IllegalArgumentException("seed is empty");
+        }
+        IntIntMap counts = new IntIntMap(64);
+        for (int i = 0; i < seed.length(); ) {
+            int cp = Character.codePointAt(seed, i);
+            counts.add(cp, 1);
+            i += Character.charCount(cp);
+        }
+        if (counts.size() == 1) {
+            throw new IllegalArgumentException("resulting alphabet only has 1 code point");
+        }
+        return counts;
+    }
+
+    private static IntIntMap count(Map<Integer, Integer> alphabet) {
+        if (alphabet == null) {
+            throw new IllegalArgumentException("alphabet is null");
+        }
+        if (alphabet.size() < 2) {
+            throw new IllegalArgumentException("alphabet has fewer than 2 code points");
+        }
+        IntIntMap counts = new IntIntMap(alphabet.size());
+        for (Map.Entry<Integer, Integer> e : alphabet.entrySet()) {
+            Integer cp = e.getKey();
+            if (cp == null || !Character.isValidCodePoint(cp)) {
+                throw new IllegalArgumentException("not a code point");
+            }
+            if (e.getValue() == null || e.getValue() <= 0) {
+                throw new IllegalArgumentException("non-positive frequency");
+            }
+            counts.put(cp, e.getValue());
+        }
+        return counts;
+    }
+
+    /**
+     * @return the number of distinct code points in the alphabet
+     */
+    public int alphabetSize() {
+        return codebook.size();
+    }
+
+    /**
+     * @param codePoint a code point
+     * @return the length in bits of its code, or 0 if it is not in the alphabet
+     */
+    public int codeLength(int codePoint) {
+        int i = codePoint < 0 ? -1 : index.get(codePoint, -1);
+        return i < 0 ? 0 : codebook.lengths[i];
+    }
+
+    /**
+     * Serializes this codec's alphabet and code lengths, from which {@link
+     * #fromHeader(byte[])} rebuilds an identical codec.
+     *
+     * @return the header
+     */
+    public byte[] codeLengthHeader() {
+        return codebook.toHeader();
+    }
+
+    /**
+     * Compresses text one code point at a time.
+     *
+     * @param input the text to compress, can be empty
+     * @return the packed encoding
+     * @throws IllegalArgumentException if input is null or contains code points that are not
+     *                                  compressible
+     */
+    public PackedBits compress(CharSequence input) {
+        if (input == null) {
+            throw new IllegalArgumentException("null input");
+        }
+        BitWriter writer = new BitWriter(Math.max(16, input.length() / 2));
+        long[] codes = codebook.codes;
+        byte[] lengths = codebook.lengths;
+        for (int i = 0; i < input.length(); ) {
+            char c = input.charAt(i);
+            int cp = c;
+            if (Character.isHighSurrogate(c) && i + 1 < input.length()
+                    && Character.isLowSurrogate(input.charAt(i + 1))) {
+                cp = Character.toCodePoint(c, input.charAt(i + 1));
+                i += 2;
+            } else {
+                i++;
+            }
+            int slot = index.get(cp, -1);
+            if (slot < 0) {
+                throw new IllegalArgumentException("Not compressible characters");
+            }
+            writer.append(codes[slot], lengths[slot]);
+        }
+        return writer.toPackedBits();
+    }
+
+    /**
+     * Decompresses the output of {@link #compress(CharSequence)}.
+     *
+     * @param input the packed encoding
+     * @return the decoded text
+     * @throws IllegalArgumentException if input is null or not decodable
+     */
+    public String decompress(PackedBits input) {
+        if (input == null) {
+            throw new IllegalArgumentException("input is null");
+        }
+        BitReader reader = new BitReader(input);
+        StringBuilder out = new StringBuilder();
+        while (reader.remaining() > 0) {
+            out.appendCodePoint(decoder.decode(reader));
+        }
+        return out.toString();
+    }
+
+    /**
+     * @return the expected encoding length of an arbitrary code point in the alphabet
+     */
+    public double expectedEncodingLength() {
+        return expected / sum;
+    }
+}
@@ -0,0 +1,98 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class CodePointHuffmanTest {
+
+    private static final String EMOJI = "\ud83d\ude00\ud83d\ude80\ud83c\udf89";
+
+    @Test
+    public void testSupplementaryCharactersAreOneSymbol() {
+        String seed = EMOJI + EMOJI + "\ud83d\ude00ab";
+        CodePointHuffman huff = new CodePointHuffman(seed);
+        assertEquals(5, huff.alphabetSize());
+        assertTrue(huff.codeLength(0x1f600) > 0);
+        assertEquals(0, huff.codeLength(0xd83d));
+        assertEquals(seed, huff.decompress(huff.compress(seed)));
+    }
+
+    @Test
+    public void testLargeSparseAlphabet() {
+        Random random = new Random(24);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200000; i++) {
+            int r = (int) Math.abs(random.nextGaussian() * 6000);
+            sb.appendCodePoint(r % 2 == 0 ? 0x4e00 + r : 0x20000 + r);
+        }
+        String text = sb.toString();
+        CodePointHuffman huff = new CodePointHuffman(text);
+        assertTrue(huff.alphabetSize() > 10000);
+        PackedBits bits = huff.compress(text);
+        assertEquals(text, huff.decompress(bits));
+        assertEquals(huff.expectedEncodingLength() * text.codePointCount(0, text.length()),
+                bits.bitLength(), 1e-3 * bits.bitLength());
+        CodePointHuffman copy = CodePointHuffman.fromHeader(huff.codeLengthHeader());
+        assertEquals(text, copy.decompress(bits));
+    }
+
+    @Test
+    public void testUnpairedSurrogates() {
+        String seed = "a\ud800b\udc00\udc00\ud83d\ude00";
+        CodePointHuffman huff = new CodePointHuffman(seed);
+        assertEquals(5, huff.alphabetSize());
+        assertEquals(seed, huff.decompress(huff.compress(seed)));
+    }
+
+    @Test
+    public void testFrequencyMap() {
+        Map<Integer, Integer> alphabet = new HashMap<>();
+        alphabet.put(0x1f600, 45);
+        alphabet.put((int) 'a', 5);
+        alphabet.put(0x10ffff, 9);
+        CodePointHuffman huff = new CodePointHuffman(alphabet);
+        assertEquals(1, huff.codeLength(0x1f600));
+        String text = new StringBuilder().appendCodePoint(0x10ffff).append('a')
+                .appendCodePoint(0x1f600).toString();
+        assertEquals(text, huff.decompress(huff.compress(text)));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testNotCompressible() {
+        new CodePointHuffman("ab").compress(EMOJI);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testSingleCodePoint() {
+        new CodePointHuffman(EMOJI.substring(0, 2).repeat(3));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testInvalidCodePoint() {
+        Map<Integer, Integer> alphabet = new HashMap<>();
+        alphabet.put(0x110000, 1);
+        alphabet.put(1, 1);
+        new CodePointHuffman(alphabet);
+    }
+
+    @Test
+    public void testIntIntMap() {
+        IntIntMap map = new IntIntMap(2);
+        for (int i = 0; i < 1000; i++) {
+            map.add(i * 7919, i);
+            map.add(i * 7919, 1);
+        }
+        assertEquals(1000, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i + 1, map.get(i * 7919, -1));
+        }
+        assertEquals(-1, map.get(5, -1));
+        map.put(0, 42);
+        assertEquals(42, map.get(0, -1));
+        int[] keys = map.sortedKeys();
+        assertEquals(7919, keys[1]);
+    }
+}
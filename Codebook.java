@@ -0,0 +1,187 @@
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A prefix code over integer symbols, kept as parallel arrays sorted by symbol. The code for
+ * {@code symbols[i]} is the low {@code lengths[i]} bits of {@code codes[i]}, most significant
+ * bit first.
+ */
+final class Codebook {
+
+    /**
+     * The longest code that fits the 64-bit code words used by the bit writers and readers.
+     */
+    static final int MAX_CODE_LENGTH = 64;
+
+    final int[] symbols;
+    final long[] codes;
+    final byte[] lengths;
+
+    Codebook(int[] symbols, long[] codes, byte[] lengths) {
+        this.symbols = symbols;
+        this.codes = codes;
+        this.lengths = lengths;
+    }
+
+    int size() {
+        return symbols.length;
+    }
+
+    int maxLength() {
+        int max = 0;
+        for (byte length : lengths) {
+            max = Math.max(max, length);
+        }
+        return max;
+    }
+
+    /**
+     * Assigns canonical codes to the given code lengths: codes are handed out in order of
+     * length, then symbol, each one the previous code plus one, shifted left to the new length.
+     * The receiver of a code only needs the lengths to rebuild exactly the same codes.
+     *
+     * @param symbols the symbols in ascending order
+     * @param lengths the code length of each symbol
+     * @return the canonical codebook
+     * @throws IllegalArgumentException if the lengths do not describe a complete prefix code
+     */
+    static Codebook canonical(int[] symbols, byte[] lengths) {
+        int[] count = new int[MAX_CODE_LENGTH + 1];
+        for (byte length : lengths) {
+            if (length < 1 || length > MAX_CODE_LENGTH) {
+                throw new IllegalArgumentException("code length out of range");
+            }
+            count[length]++;
+        }
+        // Kraft equality: every bit pattern must be claimed by exactly one code.
+        long left = 1;
+        int unplaced = lengths.length;
+        for (int len = 1; len <= MAX_CODE_LENGTH && unplaced > 0; len++) {
+            left = (left << 1) - count[len];
+            unplaced -= count[len];
+            if (left < 0) {
+                throw new IllegalArgumentException("code lengths are over-subscribed");
+            }
+            if (left > unplaced) {
+                throw new IllegalArgumentException("code lengths are incomplete");
+            }
+        }
+        if (left != 0) {
+            throw new IllegalArgumentException("code lengths are incomplete");
+        }
+        long[] next = new long[MAX_CODE_LENGTH + 1];
+        long code = 0;
+        for (int len = 1; len <= MAX_CODE_LENGTH; len++) {
+            code = (code + count[len - 1]) << 1;
+            next[len] = code;
+        }
+        long[] codes = new long[symbols.length];
+        for (int i = 0; i < symbols.length; i++) {
+            codes[i] = next[lengths[i]]++;
+        }
+        return new Codebook(symbols, codes, lengths);
+    }
+
+    /**
+     * @return true if these are exactly the canonical codes for their lengths
+     */
+    boolean isCanonical() {
+        return Arrays.equals(codes, canonical(symbols, lengths).codes);
+    }
+
+    /**
+     * Serializes the symbols and code lengths, which is all {@link #canonical} needs. The
+     * layout is a varint symbol count, the symbols as varint gaps from the previous symbol,
+     * then the lengths in symbol order as runs of (length byte, varint run length - 1).
+     *
+     * @return the header bytes
+     */
+    byte[] toHeader() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 * symbols.length + 8);
+        writeVarint(out, symbols.length);
+        int prev = -1;
+        for (int symbol : symbols) {
+            writeVarint(out, symbol - prev - 1);
+            prev = symbol;
+        }
+        int i = 0;
+        while (i < lengths.length) {
+            int j = i + 1;
+            while (j < lengths.length && lengths[j] == lengths[i]) {
+                j++;
+            }
+            out.write(lengths[i]);
+            writeVarint(out, j - i - 1);
+            i = j;
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads a header written by {@link #toHeader()} and rebuilds the canonical codes it
+     * describes.
+     *
+     * @param in the buffer to read the header from, starting at its position
+     * @return the canonical codebook
+     * @throws IllegalArgumentException if the header is malformed or truncated
+     */
+    static Codebook fromHeader(ByteBuffer in) {
+        try {
+            int n = readVarint(in);
+            if (n < 2) {
+                throw new IllegalArgumentException("header has fewer than 2 symbols");
+            }
+            if (n > in.remaining()) {
+                throw new IllegalArgumentException("header is truncated");
+            }
+            int[] symbols = new int[n];
+            long prev = -1;
+            for (int i = 0; i < n; i++) {
+                prev += (long) readVarint(in) + 1;
+                if (prev > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("symbol out of range");
+                }
+                symbols[i] = (int) prev;
+            }
+            byte[] lengths = new byte[n];
+            int i = 0;
+            while (i < n) {
+                byte length = in.get();
+                int run = readVarint(in) + 1;
+                if (run <= 0 || run > n - i) {
+                    throw new IllegalArgumentException("length run overruns symbols");
+                }
+                Arrays.fill(lengths, i, i + run, length);
+                i += run;
+            }
+            return canonical(symbols, lengths);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("header is truncated");
+        }
+    }
+
+    static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    static int readVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                if (value < 0) {
+                    throw new IllegalArgumentException("varint out of range");
+                }
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint is too long");
+    }
+}
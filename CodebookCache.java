@@ -0,0 +1,202 @@
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, least-recently-used cache of {@link Huffman} instances keyed by their normalized
+ * frequency table, so repeated seeds or alphabets share one codec instead of rebuilding the
+ * tree and code tables each time.
+ * <p>
+ * Frequencies are normalized by dividing them by their greatest common divisor. Scaling every
+ * frequency by the same factor preserves every comparison made while building the tree, so
+ * tables that normalize alike yield identical codes, and {@code "aab"} and {@code "aaaabb"}
+ * share an entry. Keys carry a 64-bit hash of the normalized table for fast lookup, and are
+ * compared in full, so a hash collision can never return the wrong codec.
+ * <p>
+ * The cache is thread-safe. A lookup holds its lock only to probe and update the map; a miss
+ * builds the codec outside the lock, so two threads missing on the same table at once may
+ * both build it, and the first to finish wins. Returned instances are shared, and so are
+ * their {@link Huffman#statistics()}.
+ */
+public final class CodebookCache {
+
+    /**
+     * The capacity used by {@link #CodebookCache()}.
+     */
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final int capacity;
+    private final LinkedHashMap<Key, Huffman> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CodebookCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the largest number of codecs kept
+     * @throws IllegalArgumentException if capacity is not positive
+     */
+    public CodebookCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity is not positive");
+        }
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Key, Huffman>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Huffman> eldest) {
+                if (size() > CodebookCache.this.capacity) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the codec for a seed's frequency table, building and caching it on a miss. The
+     * seed is always counted, but the tree is only built on a miss.
+     *
+     * @param seed the String from which to deduce the alphabet and frequencies
+     * @return a codec equivalent to {@code new Huffman(seed)}
+     * @throws IllegalArgumentException seed is null, seed is empty, or resulting alphabet only
+     *                                  has 1 character
+     */
+    public Huffman get(String seed) {
+        return get(Alphabet.fromSeed(seed));
+    }
+
+    /**
+     * Returns the codec for a frequency map, building and caching it on a miss.
+     *
+     * @param alphabet a frequency map for characters in the alphabet
+     * @return a codec equivalent to {@code new Huffman(alphabet)}
+     * @throws IllegalArgumentException if the alphabet is null, empty, has fewer than 2
+     *                                  characters, or has any non-positive frequencies
+     */
+    public Huffman get(Map<Character, Integer> alphabet) {
+        return get(Alphabet.fromMap(alphabet));
+    }
+
+    private Huffman get(Alphabet alphabet) {
+        Key key = new Key(alphabet);
+        Huffman huffman;
+        synchronized (entries) {
+            huffman = entries.get(key);
+        }
+        if (huffman != null) {
+            hits.increment();
+            return huffman;
+        }
+        misses.increment();
+        Huffman built = new Huffman(alphabet);
+        synchronized (entries) {
+            huffman = entries.putIfAbsent(key, built);
+        }
+        return huffman != null ? huffman : built;
+    }
+
+    /**
+     * @return the number of codecs currently cached
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return the number of lookups answered from the cache
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups that had to build a codec
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of codecs dropped to stay within capacity
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * Drops every cached codec. The metrics are kept.
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CodebookCache[size=" + size() + ", hits=" + hits() + ", misses=" + misses()
+                + ", evictions=" + evictions() + "]";
+    }
+
+    /**
+     * A normalized frequency table with its precomputed hash.
+     */
+    private static final class Key {
+        private final int[] symbols;
+        private final int[] freqs;
+        private final long hash;
+
+        Key(Alphabet alphabet) {
+            int gcd = 0;
+            for (int freq : alphabet.freqs) {
+                gcd = gcd(gcd, freq);
+            }
+            this.symbols = alphabet.symbols;
+            this.freqs = alphabet.freqs.clone();
+            long h = symbols.length;
+            for (int i = 0; i < symbols.length; i++) {
+                freqs[i] /= gcd;
+                h = mix(h ^ (((long) symbols[i] << 32) | freqs[i]));
+            }
+            this.hash = h;
+        }
+
+        private static int gcd(int a, int b) {
+            while (b != 0) {
+                int t = a % b;
+                a = b;
+                b = t;
+            }
+            return a;
+        }
+
+        // The finalizer of SplitMix64.
+        private static long mix(long z) {
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (hash ^ (hash >>> 32));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && Arrays.equals(symbols, other.symbols)
+                    && Arrays.equals(freqs, other.freqs);
+        }
+    }
+}
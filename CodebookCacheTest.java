@@ -0,0 +1,73 @@
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class CodebookCacheTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        CodebookCache cache = new CodebookCache(4);
+        Huffman first = cache.get("abracadabra");
+        assertSame(first, cache.get("abracadabra"));
+        assertSame(first, cache.get("aaaaabbrrcd"));
+        assertEquals(2, cache.hits());
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.size());
+        assertEquals(new Huffman("abracadabra").compress("abracadabra"),
+                first.compress("abracadabra"));
+    }
+
+    @Test
+    public void testNormalizedTablesShareCodec() {
+        CodebookCache cache = new CodebookCache();
+        Map<Character, Integer> alphabet = new HashMap<>();
+        alphabet.put('a', 5);
+        alphabet.put('b', 9);
+        alphabet.put('c', 12);
+        Map<Character, Integer> scaled = new HashMap<>();
+        scaled.put('a', 15);
+        scaled.put('b', 27);
+        scaled.put('c', 36);
+        Huffman huff = cache.get(alphabet);
+        assertSame(huff, cache.get(scaled));
+        assertNotSame(huff, cache.get("aaaaabbbbbbbbbccccccccccccd"));
+        assertEquals(2, cache.misses());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        CodebookCache cache = new CodebookCache(2);
+        Huffman ab = cache.get("ab");
+        cache.get("abb");
+        cache.get("ab");
+        cache.get("abbb");
+        assertEquals(1, cache.evictions());
+        assertEquals(2, cache.size());
+        assertSame(ab, cache.get("ab"));
+        assertEquals(3, cache.misses());
+        cache.get("abb");
+        assertEquals(4, cache.misses());
+        assertEquals(2, cache.evictions());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testBadSeed() {
+        new CodebookCache().get("aaaa");
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testBadCapacity() {
+        new CodebookCache(0);
+    }
+
+    @Test
+    public void testCodeOfDoesNotRecord() {
+        Huffman huff = new Huffman("aaaabbc");
+        assertEquals(1, huff.codeOf('a').length());
+        assertEquals(huff.compress("c"), huff.codeOf('c'));
+        assertEquals(1, huff.statistics().inputChars());
+    }
+}
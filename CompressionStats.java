@@ -0,0 +1,44 @@
+/**
+ * An immutable snapshot of the compression totals of a {@link Huffman} instance.
+ */
+public final class CompressionStats {
+
+    private final long inputChars;
+    private final long outputBits;
+
+    CompressionStats(long inputChars, long outputBits) {
+        this.inputChars = inputChars;
+        this.outputBits = outputBits;
+    }
+
+    /**
+     * @return the number of characters compressed
+     */
+    public long inputChars() {
+        return inputChars;
+    }
+
+    /**
+     * @return the size of all compressed output in bits, with packed output counted in whole
+     *         bytes
+     */
+    public long outputBits() {
+        return outputBits;
+    }
+
+    /**
+     * @return the ratio of output bits to input bits, counting 16 bits per input char
+     * @throws IllegalStateException if nothing had been compressed when the snapshot was taken
+     */
+    public double compressionRatio() {
+        if (outputBits == 0) {
+            throw new IllegalStateException("no calls to compress");
+        }
+        return (double) outputBits / ((double) inputChars * 16.0);
+    }
+
+    @Override
+    public String toString() {
+        return "CompressionStats[inputChars=" + inputChars + ", outputBits=" + outputBits + "]";
+    }
+}
@@ -0,0 +1,265 @@
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A thread-safe implementation of {@link BinaryMinHeap} for many producers and consumers,
+ * backed by a {@link ConcurrentSkipListMap} ordered by key and then by insertion sequence.
+ * It is non-blocking except for per-element locking: {@code add} and {@code decreaseKey}
+ * briefly hold the monitor of the one element they change, and no operation takes a lock
+ * shared by the whole heap. Threads contend only when they touch the same end of the skip
+ * list or the same value.
+ * <p>
+ * Guarantees under contention:
+ * <ul>
+ * <li>every element is returned by at most one {@link #extractMin()}, and an element returned
+ *     by {@code extractMin} is no longer contained by the time the call returns;</li>
+ * <li>{@code extractMin} returns the element of the node that was first in the skip list
+ *     when the call polled it. An add or decreaseKey that completed before the call began is
+ *     always taken into account; one that overlaps the call may or may not be, so a smaller
+ *     key added concurrently can be passed over, and under contention the keys extracted by
+ *     different threads are not necessarily in global order;</li>
+ * <li>elements with equal keys are extracted in the order they were added, or for
+ *     decreaseKey, in the order their keys were last set;</li>
+ * <li>an element stays extractable throughout a {@link #decreaseKey(Object, Comparable)};
+ *     an extractMin racing with it returns the element under its old or its new key;</li>
+ * <li>{@link #size()} and {@link #values()} are only exact when the heap is quiescent.</li>
+ * </ul>
+ * {@link #addAll(Collection)} is the interface's default: it checks the whole batch for
+ * duplicates against the heap before adding anything, but its entries then become visible
+ * one at a time and it costs O(m log n).
+ *
+ * @param <V>   {@inheritDoc}
+ * @param <Key> {@inheritDoc}
+ */
+public class ConcurrentMinHeap<Key extends Comparable<Key>, V> implements BinaryMinHeap<Key, V> {
+
+    // Stands in for a null value, which ConcurrentHashMap cannot hold.
+    private static final Object NULL = new Object();
+
+    private final ConcurrentSkipListMap<Node<Key, V>, Boolean> queue =
+            new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Object, Element<Key, V>> valueIndex =
+            new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * One value in the heap. It is queued under one node, or briefly two while decreaseKey
+     * swaps them; whichever node is polled first claims the element through {@code taken}.
+     */
+    private static final class Element<Key extends Comparable<Key>, V> {
+        final V value;
+        final AtomicBoolean taken = new AtomicBoolean();
+        // Guarded by this element's monitor, which only decreaseKey takes.
+        Node<Key, V> node;
+
+        Element(V value) {
+            this.value = value;
+        }
+    }
+
+    private static final class Node<Key extends Comparable<Key>, V>
+            implements Comparable<Node<Key, V>> {
+        final Key key;
+        final long seq;
+        final Element<Key, V> element;
+
+        Node(Key key, long seq, Element<Key, V> element) {
+            this.key = key;
+            this.seq = seq;
+            this.element = element;
+        }
+
+        @Override
+        public int compareTo(Node<Key, V> other) {
+            int c = key.compareTo(other.key);
+            return c != 0 ? c : Long.compare(seq, other.seq);
+        }
+    }
+
+    private static Object indexKey(Object value) {
+        return value == null ? NULL : value;
+    }
+
+    /**
+     * Runtime: O(1)
+     *
+     * @return the number of elements in the min-heap, exact only when no other thread is
+     *         changing it
+     */
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsValue(V value) {
+        Element<Key, V> element = valueIndex.get(indexKey(value));
+        return element != null && !element.taken.get();
+    }
+
+    /**
+     * Runtime: expected O(log n)
+     *
+     * @param key   {@inheritDoc}
+     * @param value {@inheritDoc}
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public void add(Key key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("key is null");
+        }
+        Element<Key, V> element = new Element<>(value);
+        if (!claim(value, element)) {
+            throw new IllegalArgumentException("value is already in the heap");
+        }
+        enqueue(key, element);
+    }
+
+    /**
+     * Registers element as the holder of value, replacing an element that has been extracted
+     * but not yet unregistered.
+     *
+     * @return false if value is held by an element still in the heap
+     */
+    private boolean claim(V value, Element<Key, V> element) {
+        Object k = indexKey(value);
+        while (true) {
+            Element<Key, V> existing = valueIndex.putIfAbsent(k, element);
+            if (existing == null) {
+                return true;
+            }
+            if (!existing.taken.get()) {
+                return false;
+            }
+            if (valueIndex.replace(k, existing, element)) {
+                return true;
+            }
+        }
+    }
+
+    private void enqueue(Key key, Element<Key, V> element) {
+        Node<Key, V> node = new Node<>(key, sequence.getAndIncrement(), element);
+        synchronized (element) {
+            element.node = node;
+        }
+        size.incrementAndGet();
+        queue.put(node, Boolean.TRUE);
+    }
+
+    /**
+     * Runtime: expected O(log n)
+     *
+     * @param value  {@inheritDoc}
+     * @param newKey {@inheritDoc}
+     * @throws NoSuchElementException   {@inheritDoc}
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    @Override
+    public void decreaseKey(V value, Key newKey) {
+        Element<Key, V> element = valueIndex.get(indexKey(value));
+        if (element == null || element.taken.get()) {
+            throw new NoSuchElementException("value not in heap");
+        }
+        if (newKey == null) {
+            throw new IllegalArgumentException("newKey is null");
+        }
+        synchronized (element) {
+            Node<Key, V> old = element.node;
+            if (old == null) {
+                // The add that registered this value has not queued it yet.
+                throw new NoSuchElementException("value not in heap");
+            }
+            if (newKey.compareTo(old.key) > 0) {
+                throw new IllegalArgumentException("newKey is greater than old key");
+            }
+            // Queue the new node before dropping the old one, so the element stays
+            // extractable throughout; taken makes sure only one of the two is returned.
+            Node<Key, V> node = new Node<>(newKey, sequence.getAndIncrement(), element);
+            element.node = node;
+            queue.put(node, Boolean.TRUE);
+            queue.remove(old);
+            if (element.taken.get()) {
+                queue.remove(node);
+                throw new NoSuchElementException("value not in heap");
+            }
+        }
+    }
+
+    /**
+     * Runtime: expected O(1)
+     *
+     * @return {@inheritDoc}
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    @Override
+    public Entry<Key, V> peek() {
+        while (true) {
+            Map.Entry<Node<Key, V>, Boolean> first = queue.firstEntry();
+            if (first == null) {
+                throw new NoSuchElementException("heap is empty");
+            }
+            Node<Key, V> node = first.getKey();
+            if (!node.element.taken.get()) {
+                return new Entry<>(node.key, node.element.value);
+            }
+            queue.remove(node);
+        }
+    }
+
+    /**
+     * Runtime: expected O(log n)
+     *
+     * @return {@inheritDoc}
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    @Override
+    public Entry<Key, V> extractMin() {
+        while (true) {
+            Map.Entry<Node<Key, V>, Boolean> first = queue.pollFirstEntry();
+            if (first == null) {
+                throw new NoSuchElementException("heap is empty");
+            }
+            Node<Key, V> node = first.getKey();
+            Element<Key, V> element = node.element;
+            // A node left behind by decreaseKey loses this race to its replacement or is
+            // polled after the element was taken; either way it is skipped.
+            if (element.taken.compareAndSet(false, true)) {
+                size.decrementAndGet();
+                valueIndex.remove(indexKey(element.value), element);
+                return new Entry<>(node.key, element.value);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<V> values() {
+        HashSet<V> values = new HashSet<>();
+        for (Element<Key, V> element : valueIndex.values()) {
+            if (!element.taken.get()) {
+                values.add(element.value);
+            }
+        }
+        return values;
+    }
+}
@@ -0,0 +1,152 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class ConcurrentMinHeapTest {
+
+    @Test
+    public void testSequential() {
+        ConcurrentMinHeap<Integer, String> minHeap = new ConcurrentMinHeap<>();
+        assertTrue(minHeap.isEmpty());
+        minHeap.add(5, "c");
+        minHeap.add(1, "a");
+        minHeap.add(3, "b");
+        minHeap.add(3, null);
+        assertEquals(4, minHeap.size());
+        assertTrue(minHeap.containsValue(null));
+        minHeap.decreaseKey("c", 2);
+        assertEquals("a", minHeap.peek().value);
+        assertEquals("a", minHeap.extractMin().value);
+        assertEquals("c", minHeap.extractMin().value);
+        assertEquals("b", minHeap.extractMin().value);
+        assertNull(minHeap.extractMin().value);
+        assertTrue(minHeap.isEmpty());
+        assertFalse(minHeap.containsValue("a"));
+        minHeap.add(1, "a");
+        assertTrue(minHeap.containsValue("a"));
+    }
+
+    @Test
+    public void testEqualKeysInAddOrder() {
+        ConcurrentMinHeap<Integer, String> minHeap = new ConcurrentMinHeap<>();
+        minHeap.add(1, "a");
+        minHeap.add(1, "b");
+        minHeap.add(5, "c");
+        minHeap.add(3, "d");
+        minHeap.add(5, "e");
+        for (String s : new String[] {"a", "b", "d", "c", "e"}) {
+            assertEquals(s, minHeap.extractMin().value);
+        }
+    }
+
+    @Test
+    public void testAddAllAndValues() {
+        ConcurrentMinHeap<Integer, String> minHeap = new ConcurrentMinHeap<>();
+        List<BinaryMinHeap.Entry<Integer, String>> batch = new ArrayList<>();
+        batch.add(new BinaryMinHeap.Entry<>(2, "b"));
+        batch.add(new BinaryMinHeap.Entry<>(1, "a"));
+        minHeap.addAll(batch);
+        Set<String> values = minHeap.values();
+        assertEquals(2, values.size());
+        assertTrue(values.contains("a") && values.contains("b"));
+    }
+
+    @Test
+    public void testAddAllRejectsWholeBatch() {
+        ConcurrentMinHeap<Integer, String> minHeap = new ConcurrentMinHeap<>();
+        minHeap.add(1, "a");
+        List<BinaryMinHeap.Entry<Integer, String>> batch = new ArrayList<>();
+        batch.add(new BinaryMinHeap.Entry<>(2, "b"));
+        batch.add(new BinaryMinHeap.Entry<>(3, "a"));
+        try {
+            minHeap.addAll(batch);
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertEquals(1, minHeap.size());
+            assertFalse(minHeap.containsValue("b"));
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testAddExistedValue() {
+        ConcurrentMinHeap<Integer, String> minHeap = new ConcurrentMinHeap<>();
+        minHeap.add(1, "a");
+        minHeap.add(2, "a");
+    }
+
+    @Test (expected = NoSuchElementException.class)
+    public void testDecreaseValueNotExist() {
+        new ConcurrentMinHeap<Integer, String>().decreaseKey("a", 1);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testDecreaseBiggerNewKey() {
+        ConcurrentMinHeap<Integer, String> minHeap = new ConcurrentMinHeap<>();
+        minHeap.add(1, "a");
+        minHeap.decreaseKey("a", 2);
+    }
+
+    @Test (expected = NoSuchElementException.class)
+    public void testExtractEmpty() {
+        new ConcurrentMinHeap<Integer, String>().extractMin();
+    }
+
+    @Test
+    public void testConcurrentProducersAndConsumers() throws Exception {
+        int threads = 8;
+        int perThread = 20000;
+        ConcurrentMinHeap<Integer, Integer> minHeap = new ConcurrentMinHeap<>();
+        Set<Integer> extracted = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int id = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    int value = id * perThread + i;
+                    minHeap.add(value % 1000 + 10, value);
+                    if (i % 3 == 0) {
+                        try {
+                            minHeap.decreaseKey(value, value % 1000);
+                        } catch (NoSuchElementException alreadyExtracted) {
+                            // another thread took it first
+                        }
+                    }
+                    if (i % 2 == 0) {
+                        assertTrue(extracted.add(minHeap.extractMin().value));
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(threads * perThread - extracted.size(), minHeap.size());
+        int last = Integer.MIN_VALUE;
+        while (!minHeap.isEmpty()) {
+            BinaryMinHeap.Entry<Integer, Integer> min = minHeap.extractMin();
+            assertTrue(min.key >= last);
+            last = min.key;
+            assertTrue(extracted.add(min.value));
+        }
+        assertEquals(threads * perThread, extracted.size());
+    }
+}
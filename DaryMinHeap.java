@@ -0,0 +1,242 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A d-ary min-heap. Each node has {@code arity} children, so a heap of n entries is only
+ * log_d(n) levels deep and sifts move an entry fewer times than in a binary heap. Keys and
+ * values live in two parallel arrays rather than in {@link BinaryMinHeap.Entry} objects, and
+ * sifts are iterative and move the sifted entry into place once instead of swapping at every
+ * level.
+ * <p>
+ * The arrays hold references to boxed keys, and every move also updates a {@code HashMap}
+ * from value to index, so comparisons and moves still touch memory outside the arrays. The
+ * saving is in the number of levels, not in locality.
+ * <p>
+ * Sift-down compares up to {@code arity} children per level, so wider heaps pay more per
+ * level for fewer levels; 4 is a good default, and 8 suits heaps of millions of entries.
+ *
+ * @param <V>   {@inheritDoc}
+ * @param <Key> {@inheritDoc}
+ */
+public class DaryMinHeap<Key extends Comparable<Key>, V> implements BinaryMinHeap<Key, V> {
+
+    /**
+     * The arity used by {@link #DaryMinHeap()}.
+     */
+    public static final int DEFAULT_ARITY = 4;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    final int arity;
+    // 0-indexed: the children of i are arity * i + 1 .. arity * i + arity.
+    Object[] keys;
+    Object[] values;
+    HashMap<V, Integer> valueIndex;
+    private int size;
+
+    public DaryMinHeap() {
+        this(DEFAULT_ARITY);
+    }
+
+    /**
+     * @param arity the number of children of each node
+     * @throws IllegalArgumentException if arity is less than 2
+     */
+    public DaryMinHeap(int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("arity is less than 2");
+        }
+        this.arity = arity;
+        this.keys = new Object[INITIAL_CAPACITY];
+        this.values = new Object[INITIAL_CAPACITY];
+        this.valueIndex = new HashMap<>();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean containsValue(V value) {
+        return valueIndex.containsKey(value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(Key key, V value) {
+        if (key == null) {
+            throw new IllegalArgumentException("key is null");
+        }
+        if (containsValue(value)) {
+            throw new IllegalArgumentException("value is already in the heap");
+        }
+        ensureCapacity(size + 1);
+        siftUp(size++, key, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addAll(Collection<? extends Entry<Key, V>> entries) {
+        if (entries == null) {
+            throw new IllegalArgumentException("entries is null");
+        }
+        HashSet<V> batch = new HashSet<>();
+        for (Entry<Key, V> e : entries) {
+            if (e.key == null) {
+                throw new IllegalArgumentException("key is null");
+            }
+            if (containsValue(e.value) || !batch.add(e.value)) {
+                throw new IllegalArgumentException("value is already in the heap");
+            }
+        }
+        ensureCapacity(size + entries.size());
+        for (Entry<Key, V> e : entries) {
+            keys[size] = e.key;
+            values[size] = e.value;
+            valueIndex.put(e.value, size);
+            size++;
+        }
+        if (size > 1) {
+            for (int i = (size - 2) / arity; i >= 0; i--) {
+                siftDown(i, key(i), value(i));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void decreaseKey(V value, Key newKey) {
+        Integer index = valueIndex.get(value);
+        if (index == null) {
+            throw new NoSuchElementException("value not in heap");
+        }
+        if (newKey == null) {
+            throw new IllegalArgumentException("newKey is null");
+        }
+        if (newKey.compareTo(key(index)) > 0) {
+            throw new IllegalArgumentException("newKey is greater than old key");
+        }
+        siftUp(index, newKey, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry<Key, V> peek() {
+        if (size == 0) {
+            throw new NoSuchElementException("heap is empty");
+        }
+        return new Entry<>(key(0), value(0));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Entry<Key, V> extractMin() {
+        Entry<Key, V> min = peek();
+        valueIndex.remove(min.value);
+        size--;
+        Key lastKey = key(size);
+        V lastValue = value(size);
+        keys[size] = null;
+        values[size] = null;
+        if (size > 0) {
+            siftDown(0, lastKey, lastValue);
+        }
+        return min;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Set<V> values() {
+        return new HashSet<>(valueIndex.keySet());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Key key(int i) {
+        return (Key) keys[i];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V value(int i) {
+        return (V) values[i];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > keys.length) {
+            int grown = Math.max(capacity, keys.length + (keys.length >> 1));
+            keys = Arrays.copyOf(keys, grown);
+            values = Arrays.copyOf(values, grown);
+        }
+    }
+
+    private void place(int index, Key key, V value) {
+        keys[index] = key;
+        values[index] = value;
+        valueIndex.put(value, index);
+    }
+
+    /**
+     * Moves parents down until key fits at index, then stores the entry there.
+     */
+    private void siftUp(int index, Key key, V value) {
+        while (index > 0) {
+            int parent = (index - 1) / arity;
+            if (key(parent).compareTo(key) <= 0) {
+                break;
+            }
+            place(index, key(parent), value(parent));
+            index = parent;
+        }
+        place(index, key, value);
+    }
+
+    /**
+     * Moves the smallest child up while it is smaller than key, then stores the entry at the
+     * vacated slot.
+     */
+    private void siftDown(int index, Key key, V value) {
+        while (true) {
+            int first = arity * index + 1;
+            if (first >= size) {
+                break;
+            }
+            int last = Math.min(first + arity, size);
+            int smallest = first;
+            for (int c = first + 1; c < last; c++) {
+                if (key(c).compareTo(key(smallest)) < 0) {
+                    smallest = c;
+                }
+            }
+            if (key(smallest).compareTo(key) >= 0) {
+                break;
+            }
+            place(index, key(smallest), value(smallest));
+            index = smallest;
+        }
+        place(index, key, value);
+    }
+}
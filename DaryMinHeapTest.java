@@ -0,0 +1,131 @@
+import java.util.ArrayList;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class DaryMinHeapTest {
+
+    @Test
+    public void testIsEmpty() {
+        DaryMinHeap<Integer, String> minHeap = new DaryMinHeap<>();
+        assertTrue(minHeap.isEmpty());
+        minHeap.add(1, "a");
+        assertFalse(minHeap.isEmpty());
+    }
+
+    @Test
+    public void testExtractInOrder() {
+        DaryMinHeap<Integer, String> minHeap = new DaryMinHeap<>(3);
+        minHeap.add(45, "f");
+        minHeap.add(13, "d");
+        minHeap.add(5, "a");
+        minHeap.add(16, "e");
+        minHeap.add(9, "b");
+        minHeap.add(12, "c");
+        assertEquals("a", minHeap.peek().value);
+        for (String s : new String[] {"a", "b", "c", "d", "e", "f"}) {
+            assertEquals(s, minHeap.extractMin().value);
+        }
+        assertTrue(minHeap.isEmpty());
+    }
+
+    @Test
+    public void testNullValue() {
+        DaryMinHeap<Integer, String> minHeap = new DaryMinHeap<>();
+        assertFalse(minHeap.containsValue(null));
+        minHeap.add(2, null);
+        minHeap.add(1, "a");
+        assertTrue(minHeap.containsValue(null));
+        minHeap.decreaseKey(null, 0);
+        assertNull(minHeap.extractMin().value);
+        Set<String> values = minHeap.values();
+        assertEquals(1, values.size());
+        assertTrue(values.contains("a"));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testArityTooSmall() {
+        new DaryMinHeap<Integer, String>(1);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testAddExistedValue() {
+        DaryMinHeap<Integer, String> minHeap = new DaryMinHeap<>();
+        minHeap.add(1, "a");
+        minHeap.add(2, "a");
+    }
+
+    @Test (expected = NoSuchElementException.class)
+    public void testDecreaseValueNotExist() {
+        new DaryMinHeap<Integer, String>().decreaseKey("a", 1);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testDecreaseBiggerNewKey() {
+        DaryMinHeap<Integer, String> minHeap = new DaryMinHeap<>();
+        minHeap.add(1, "a");
+        minHeap.decreaseKey("a", 2);
+    }
+
+    @Test (expected = NoSuchElementException.class)
+    public void testExtractEmpty() {
+        new DaryMinHeap<Integer, String>().extractMin();
+    }
+
+    @Test
+    public void testAddAllEmptyBatch() {
+        for (int arity : new int[] {2, 3, 4, 8}) {
+            DaryMinHeap<Integer, String> minHeap = new DaryMinHeap<>(arity);
+            minHeap.addAll(new ArrayList<>());
+            assertTrue(minHeap.isEmpty());
+            assertFalse(minHeap.containsValue(null));
+            assertTrue(minHeap.values().isEmpty());
+            minHeap.add(1, null);
+            assertTrue(minHeap.containsValue(null));
+        }
+    }
+
+    @Test
+    public void testRandomOperations() {
+        for (int arity : new int[] {2, 4, 8}) {
+            Random random = new Random(arity);
+            DaryMinHeap<Integer, Integer> minHeap = new DaryMinHeap<>(arity);
+            int[] keys = new int[5000];
+            // Keys are distinct, so both heaps extract the same values.
+            PriorityQueue<Long> reference = new PriorityQueue<>();
+            ArrayList<BinaryMinHeap.Entry<Integer, Integer>> batch = new ArrayList<>();
+            for (int v = 0; v < 1000; v++) {
+                keys[v] = random.nextInt(1000) * 8192 + v;
+                batch.add(new BinaryMinHeap.Entry<>(keys[v], v));
+                reference.add((long) keys[v] << 32 | v);
+            }
+            minHeap.addAll(batch);
+            int next = 1000;
+            for (int step = 0; step < 5000; step++) {
+                int op = random.nextInt(3);
+                if (op == 0 && next < keys.length) {
+                    keys[next] = random.nextInt(1000) * 8192 + next;
+                    minHeap.add(keys[next], next);
+                    reference.add((long) keys[next] << 32 | next);
+                    next++;
+                } else if (op == 1 && !reference.isEmpty()) {
+                    long min = reference.poll();
+                    assertEquals((int) (min >>> 32), (int) minHeap.extractMin().key);
+                } else if (!reference.isEmpty()) {
+                    long entry = reference.peek();
+                    int value = (int) entry;
+                    reference.remove(entry);
+                    keys[value] -= 8192;
+                    minHeap.decreaseKey(value, keys[value]);
+                    reference.add((long) keys[value] << 32 | value);
+                }
+                assertEquals(reference.size(), minHeap.size());
+            }
+        }
+    }
+}
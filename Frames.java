@@ -0,0 +1,131 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * The frame layout shared by {@link HuffmanWriter} and {@link AdaptiveHuffmanWriter} and
+ * their readers: a 4-byte big-endian bit length followed by that many packed bits. The static
+ * method writes frames; an instance reads them from a stream, holding one frame at a time.
+ */
+final class Frames {
+
+    /**
+     * How far a frame may run past the chunk size. Writers emit a frame once the pending bits
+     * reach the chunk size, so a frame can exceed it by the codes of the last characters
+     * encoded; this bounds that overshoot generously for either writer.
+     */
+    static final int SLACK_BYTES = 1 << 16;
+
+    /**
+     * The largest frame a reader accepts, in bits.
+     */
+    static final long MAX_FRAME_BITS = 8L * (HuffmanWriter.MAX_CHUNK_BYTES + SLACK_BYTES);
+
+    /**
+     * Decodes one character from a frame's bits.
+     */
+    interface CharDecoder {
+        char decode(BitReader bits);
+    }
+
+    private final DataInputStream in;
+    private byte[] frame = new byte[0];
+    private BitReader bits = new BitReader(ByteBuffer.wrap(frame), 0);
+
+    /**
+     * @param in the stream to read frames from, not null
+     */
+    Frames(InputStream in) {
+        this.in = new DataInputStream(in);
+    }
+
+    /**
+     * @param chunkBytes a writer's requested chunk size
+     * @throws IllegalArgumentException if chunkBytes is not between 1 and {@link
+     *                                  HuffmanWriter#MAX_CHUNK_BYTES}
+     */
+    static void checkChunkBytes(int chunkBytes) {
+        if (chunkBytes <= 0 || chunkBytes > HuffmanWriter.MAX_CHUNK_BYTES) {
+            throw new IllegalArgumentException("chunk size out of range");
+        }
+    }
+
+    /**
+     * Writes the pending bits as one frame, unless there are none, and resets the writer.
+     *
+     * @return the frame's bit length, or 0 if nothing was written
+     * @throws IOException if the stream fails
+     */
+    static long write(DataOutputStream out, BitWriter bits) throws IOException {
+        long bitLength = bits.bitLength();
+        if (bitLength == 0) {
+            return 0;
+        }
+        bits.flush();
+        out.writeInt((int) bitLength);
+        out.write(bits.out.array(), 0, bits.out.position());
+        bits.reset();
+        return bitLength;
+    }
+
+    /**
+     * Loads the next frame.
+     *
+     * @return false if the stream ended cleanly between frames
+     */
+    private boolean next() throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return false;
+        }
+        int bitLength = (first << 24) | (in.readUnsignedByte() << 16)
+                | (in.readUnsignedByte() << 8) | in.readUnsignedByte();
+        if (bitLength <= 0 || bitLength > MAX_FRAME_BITS) {
+            throw new IOException("corrupt frame length");
+        }
+        int bytes = (int) PackedBits.byteLength(bitLength);
+        if (frame.length < bytes) {
+            frame = new byte[bytes];
+        }
+        in.readFully(frame, 0, bytes);
+        bits = new BitReader(ByteBuffer.wrap(frame, 0, bytes), bitLength);
+        return true;
+    }
+
+    /**
+     * Decodes up to {@code len} characters, following {@link java.io.Reader#read(char[], int,
+     * int)}: it blocks for a new frame only if nothing has been decoded yet.
+     *
+     * @return the number of characters decoded, or -1 at the end of the stream
+     * @throws IOException if the stream fails, ends inside a frame, or holds bits that are not
+     *                     decodable
+     */
+    int read(char[] cbuf, int off, int len, CharDecoder decoder) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int n = 0;
+        try {
+            while (n < len) {
+                if (bits.remaining() == 0) {
+                    if ((n > 0 && in.available() == 0) || !next()) {
+                        break;
+                    }
+                }
+                cbuf[off + n++] = decoder.decode(bits);
+            }
+        } catch (EOFException e) {
+            throw new IOException("stream ends inside a frame", e);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("frame is not decodable", e);
+        }
+        return n == 0 ? -1 : n;
+    }
+
+    void close() throws IOException {
+        in.close();
+    }
+}
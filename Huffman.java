@@ -1,20 +1,28 @@
+import java.nio.ByteBuffer;
 import java.util.Map;
-import java.util.HashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Implements construction, encoding, and decoding logic of the Huffman coding algorithm. Characters
  * not in the given seed or alphabet should not be compressible, and attempts to use those
  * characters should result in the throwing of an {@link IllegalArgumentException} if used in {@link
  * #compress(String)}.
+ * <p>
+ * Instances are immutable apart from their compression statistics, which are kept in {@link
+ * LongAdder}s, so one instance can be shared by any number of threads without locking.
  */
 public class Huffman {
 
-    Node root;
-    HashMap<String, String> encodingMap;
-    int inputNum;
-    int outputNum;
-    int sum;
-    double expected;
+    final long[] charCodes;
+    final byte[] charLengths;
+    final Codebook codebook;
+    final TableDecoder decoder;
+    final boolean canonical;
+    final Alphabet alphabet;
+    final long sum;
+    final double expected;
+    private final LongAdder inputNum = new LongAdder();
+    private final LongAdder outputNum = new LongAdder();
 
     /**
      * Constructs a {@code Huffman} instance from a seed string, from which to deduce the alphabet
@@ -27,56 +35,7 @@ public class Huffman {
      *                                  1 character
      */
     public Huffman(String seed) {
-        if (seed == null) {
-            throw new IllegalArgumentException("seed is null");
-        }
-        if (seed.equals("")) {
-            throw new IllegalArgumentException("seed is empty");
-        }
-
-        BinaryMinHeap<Integer, Node> minHeap = new BinaryMinHeapImpl<>();
-        HashMap<String, Integer> freqList = new HashMap<>();
-        for (int i = 0; i < seed.length(); i++) {
-            String s = Character.toString(seed.charAt(i));
-            if (freqList.containsKey(s)) {
-                int freq = freqList.get(s);
-                freqList.put(s, freq + 1);
-            } else {
-                freqList.put(s, 1);
-            }
-        }
-        for (String s : freqList.keySet()) {
-            minHeap.add(freqList.get(s), new Node(s, freqList.get(s)));
-        }
-
-        if (freqList.size() == 1) {
-            throw new IllegalArgumentException("resulting alphabet only has 1 character");
-        }
-        while (minHeap.size() != 1) {
-            BinaryMinHeap.Entry<Integer, Node> min1 = minHeap.extractMin();
-            Node left = new Node(min1.value.s, min1.key);
-            left.left = min1.value.left;
-            left.right = min1.value.right;
-            BinaryMinHeap.Entry<Integer, Node> min2 = minHeap.extractMin();
-            Node right = new Node(min2.value.s, min2.key);
-            right.left = min2.value.left;
-            right.right = min2.value.right;
-            Node combine = new Node(null, min1.key + min2.key);
-            combine.left = left;
-            combine.right = right;
-            minHeap.add(combine.freq, combine);
-        }
-        this.root = minHeap.peek().value;
-        this.inputNum = 0;
-        this.outputNum = 0;
-        this.encodingMap = new HashMap<>();
-        for (int freq: freqList.values()) {
-            this.sum += freq;
-        }
-        createEncodingMap(encodingMap, root, "");
-        for (String letter: encodingMap.keySet()) {
-            this.expected += freqList.get(letter) * (double) encodingMap.get(letter).length();
-        }
+        this(Alphabet.fromSeed(seed));
     }
 
     /**
@@ -89,64 +48,273 @@ public class Huffman {
      *                                  or has any non-positive frequencies
      */
     public Huffman(Map<Character, Integer> alphabet) {
+        this(Alphabet.fromMap(alphabet));
+    }
+
+    Huffman(Alphabet alphabet) {
+        this(treeCodebook(alphabet), alphabet);
+    }
+
+    /**
+     * Constructs a {@code Huffman} instance from a seed string with the given tree
+     * construction. Every construction yields code lengths of the same, optimal, expected
+     * encoding length, though ties may be broken differently.
+     *
+     * @param seed         the String from which to build the encoding
+     * @param construction how to build the tree
+     * @throws IllegalArgumentException seed is null, seed is empty, resulting alphabet only has
+     *                                  1 character, or construction is null
+     */
+    public Huffman(String seed, Construction construction) {
+        this(Alphabet.fromSeed(seed), construction);
+    }
+
+    /**
+     * Constructs a {@code Huffman} instance from a frequency map with the given tree
+     * construction. See {@link #Huffman(String, Construction)}.
+     *
+     * @param alphabet     a frequency map for characters in the alphabet
+     * @param construction how to build the tree
+     * @throws IllegalArgumentException if the alphabet is null, empty, has fewer than 2
+     *                                  characters, or has any non-positive frequencies, or
+     *                                  construction is null
+     */
+    public Huffman(Map<Character, Integer> alphabet, Construction construction) {
+        this(Alphabet.fromMap(alphabet), construction);
+    }
+
+    private Huffman(Alphabet alphabet, Construction construction) {
+        this(construction(construction).codebook(alphabet), alphabet);
+    }
+
+    /**
+     * Constructs a {@code Huffman} instance from a seed string whose codes are no longer than
+     * {@code maxCodeLength} bits. Code lengths are chosen by package-merge, so the expected
+     * encoding length is the smallest possible under that limit; it equals the unrestricted
+     * Huffman code's whenever that code already fits. Codes are assigned canonically.
+     *
+     * @param seed          the String from which to build the encoding
+     * @param maxCodeLength the longest code allowed, between 1 and 64
+     * @throws IllegalArgumentException seed is null, seed is empty, resulting alphabet only has
+     *                                  1 character, or maxCodeLength is out of range or too
+     *                                  small to give every character its own code
+     */
+    public Huffman(String seed, int maxCodeLength) {
+        this(Alphabet.fromSeed(seed), maxCodeLength);
+    }
+
+    /**
+     * Constructs a {@code Huffman} instance from a frequency map whose codes are no longer than
+     * {@code maxCodeLength} bits. See {@link #Huffman(String, int)}.
+     *
+     * @param alphabet      a frequency map for characters in the alphabet
+     * @param maxCodeLength the longest code allowed, between 1 and 64
+     * @throws IllegalArgumentException if the alphabet is null, empty, has fewer than 2
+     *                                  characters, or has any non-positive frequencies, or
+     *                                  maxCodeLength is out of range or too small to give every
+     *                                  character its own code
+     */
+    public Huffman(Map<Character, Integer> alphabet, int maxCodeLength) {
+        this(Alphabet.fromMap(alphabet), maxCodeLength);
+    }
+
+    private Huffman(Alphabet alphabet, int maxCodeLength) {
+        this(Codebook.canonical(alphabet.symbols,
+                PackageMerge.codeLengths(alphabet.freqs, maxCodeLength)), alphabet);
+    }
+
+    /**
+     * Constructs a {@code Huffman} instance from a code-length header written by {@link
+     * #codeLengthHeader()}. The codes are assigned canonically from the lengths alone, so no
+     * tree is built.
+     * <p>
+     * No frequencies travel with the header, so {@link #expectedEncodingLength()} assumes each
+     * character occurs with probability {@code 2^-length}, the distribution the code is
+     * optimal for.
+     *
+     * @param header the serialized code lengths
+     * @throws IllegalArgumentException if the header is null, malformed, has fewer than 2
+     *                                  characters, or does not describe a complete prefix code
+     */
+    public Huffman(byte[] header) {
+        this(headerCodebook(header), null);
+    }
+
+    /**
+     * Sets up encoding and decoding tables for a codebook. Everything is fixed here, so an
+     * instance can be shared freely between threads; only the statistics change afterwards.
+     *
+     * @param codebook the codes for a char alphabet
+     * @param alphabet the frequencies the codes were built from, or null if unknown
+     */
+    private Huffman(Codebook codebook, Alphabet alphabet) {
+        this.codebook = codebook;
+        this.decoder = new TableDecoder(codebook);
+        this.canonical = codebook.isCanonical();
+        this.alphabet = alphabet;
+        int[] symbols = codebook.symbols;
+        this.charCodes = new long[symbols[symbols.length - 1] + 1];
+        this.charLengths = new byte[charCodes.length];
+        for (int i = 0; i < symbols.length; i++) {
+            charCodes[symbols[i]] = codebook.codes[i];
+            charLengths[symbols[i]] = codebook.lengths[i];
+        }
         if (alphabet == null) {
-            throw new IllegalArgumentException("alphabet is null");
+            double implied = 0;
+            for (byte length : codebook.lengths) {
+                implied += length * Math.pow(2, -length);
+            }
+            this.expected = implied;
+            this.sum = 1;
+        } else {
+            this.expected = alphabet.weightedLength(codebook.lengths);
+            this.sum = alphabet.total();
         }
-        if (alphabet.size() == 0) {
-            throw new IllegalArgumentException("alphabet is empty");
+    }
+
+    /**
+     * Builds the Huffman tree for an alphabet and reads the codes off it, 0 for a left branch
+     * and 1 for a right branch.
+     */
+    private static Codebook treeCodebook(Alphabet alphabet) {
+        int n = alphabet.size();
+        long[] weights = new long[n];
+        int[] leaves = new int[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = alphabet.freqs[i];
+            leaves[i] = i;
         }
-        if (alphabet.keySet().size() < 2) {
-            throw new IllegalArgumentException("alphabet has fewer than 2 characters");
+        LongMinHeap minHeap = new LongMinHeap(2 * n - 1);
+        minHeap.addAll(weights, leaves);
+        return treeCodebook(alphabet, minHeap);
+    }
+
+    /**
+     * Builds the tree from a queue seeded with every leaf, keyed by frequency, with node i
+     * being symbol i, and reads the codes off it.
+     */
+    private static Codebook treeCodebook(Alphabet alphabet, MinQueue queue) {
+        // Nodes 0..n-1 are the leaves in symbol order, nodes n..2n-2 the merges.
+        int n = alphabet.size();
+        int[] left = new int[n - 1];
+        int[] right = new int[n - 1];
+        for (int node = n; queue.size() != 1; node++) {
+            long weight = queue.peekKey();
+            left[node - n] = queue.extractMin();
+            weight += queue.peekKey();
+            right[node - n] = queue.extractMin();
+            queue.add(weight, node);
         }
+        long[] codes = new long[n];
+        byte[] lengths = new byte[n];
+        assignCodes(2 * n - 2, 0, 0, n, left, right, codes, lengths);
+        return new Codebook(alphabet.symbols, codes, lengths);
+    }
 
-        BinaryMinHeap<Integer, Node> minHeap = new BinaryMinHeapImpl<>();
-        HashMap<String, Integer> freqList = new HashMap<>();
-        for (Character c: alphabet.keySet()) {
-            String s = Character.toString(c);
-            int freq = alphabet.get(c);
-            if (freq <= 0) {
-                throw new IllegalArgumentException("non-positive frequency");
-            }
-            freqList.put(s, freq);
-            minHeap.add(freq, new Node(s, freq));
+    private static Codebook radixCodebook(Alphabet alphabet) {
+        RadixHeap radixHeap = new RadixHeap();
+        for (int i = 0; i < alphabet.size(); i++) {
+            radixHeap.add(alphabet.freqs[i], i);
         }
-        if (minHeap.size() == 1) {
-            throw new IllegalArgumentException("resulting alphabet only has 1 character");
+        return treeCodebook(alphabet, radixHeap);
+    }
+
+    private static Construction construction(Construction construction) {
+        if (construction == null) {
+            throw new IllegalArgumentException("construction is null");
         }
-        while (minHeap.size() != 1) {
-            BinaryMinHeap.Entry<Integer, Node> min1 = minHeap.extractMin();
-            Node left = new Node(min1.value.s, min1.key);
-            left.left = min1.value.left;
-            left.right = min1.value.right;
-            BinaryMinHeap.Entry<Integer, Node> min2 = minHeap.extractMin();
-            Node right = new Node(min2.value.s, min2.key);
-            right.left = min2.value.left;
-            right.right = min2.value.right;
-            Node combine = new Node(null, min1.key + min2.key);
-            combine.left = left;
-            combine.right = right;
-            minHeap.add(combine.freq, combine);
+        return construction;
+    }
+
+    private static void assignCodes(int node, long code, int length, int n, int[] left,
+                                    int[] right, long[] codes, byte[] lengths) {
+        if (node >= n) {
+            assignCodes(left[node - n], code << 1, length + 1, n, left, right, codes, lengths);
+            assignCodes(right[node - n], (code << 1) | 1, length + 1, n, left, right, codes,
+                    lengths);
+        } else {
+            codes[node] = code;
+            lengths[node] = (byte) length;
         }
-        this.root = minHeap.peek().value;
-        this.inputNum = 0;
-        this.outputNum = 0;
-        this.encodingMap = new HashMap<>();
-        for (int freq: freqList.values()) {
-            this.sum += freq;
+    }
+
+    private static Codebook headerCodebook(byte[] header) {
+        if (header == null) {
+            throw new IllegalArgumentException("header is null");
         }
-        createEncodingMap(encodingMap, root, "");
-        for (String letter: encodingMap.keySet()) {
-            this.expected += freqList.get(letter) * (double) encodingMap.get(letter).length();
+        Codebook codebook = Codebook.fromHeader(ByteBuffer.wrap(header));
+        if (codebook.symbols[codebook.size() - 1] > Character.MAX_VALUE) {
+            throw new IllegalArgumentException("header symbol is not a char");
         }
+        return codebook;
     }
 
-    public void createEncodingMap(HashMap<String, String> map, Node node, String s) {
-        if (node.s == null) {
-            createEncodingMap(map, node.left, s + "0");
-            createEncodingMap(map, node.right, s + "1");
-        } else {
-            map.put(node.s, s);
+    /**
+     * Returns an instance with the same code lengths as this one, and therefore the same
+     * compression, but with codes assigned canonically. Only canonical instances can describe
+     * themselves with {@link #codeLengthHeader()}.
+     *
+     * @return this instance if its codes are already canonical, otherwise a canonical copy
+     */
+    public Huffman canonical() {
+        if (canonical) {
+            return this;
+        }
+        return new Huffman(Codebook.canonical(codebook.symbols, codebook.lengths), alphabet);
+    }
+
+    /**
+     * @return the length in bits of this instance's longest code
+     */
+    public int maxCodeLength() {
+        return codebook.maxLength();
+    }
+
+    /**
+     * @return true if this instance's codes are the canonical codes for their lengths
+     */
+    public boolean isCanonical() {
+        return canonical;
+    }
+
+    /**
+     * Serializes this instance's alphabet and code lengths, from which {@link #Huffman(byte[])}
+     * rebuilds an identical encoder and decoder. Characters are delta coded and lengths are
+     * run-length coded, so the header is typically a little over a byte per character.
+     *
+     * @return the header bytes
+     * @throws IllegalStateException if this instance's codes are not canonical; use {@link
+     *                               #canonical()} first
+     */
+    public byte[] codeLengthHeader() {
+        if (!canonical) {
+            throw new IllegalStateException("codes are not canonical");
+        }
+        return codebook.toHeader();
+    }
+
+    private int codeLength(char c) {
+        return c < charLengths.length ? charLengths[c] : 0;
+    }
+
+    /**
+     * Returns the code of one character. Unlike {@link #compress(String)}, this does not count
+     * towards the compression statistics.
+     *
+     * @param c the character to look up
+     * @return the character's code as a string of ones and zeroes
+     * @throws IllegalArgumentException if the character is not compressible
+     */
+    public String codeOf(char c) {
+        int length = codeLength(c);
+        if (length == 0) {
+            throw new IllegalArgumentException("Not compressible characters");
+        }
+        StringBuilder code = new StringBuilder(length);
+        for (int i = length - 1; i >= 0; i--) {
+            code.append((char) ('0' + ((charCodes[c] >>> i) & 1)));
         }
+        return code.toString();
     }
 
     /**
@@ -165,20 +333,124 @@ public class Huffman {
         if (input.equals("")) {
             return "";
         }
-        inputNum += input.length();
         for (int i = 0; i < input.length(); i++) {
-            String s = Character.toString(input.charAt(i));
-            if (!this.encodingMap.containsKey(s)) {
+            char c = input.charAt(i);
+            int length = codeLength(c);
+            if (length == 0) {
                 throw new IllegalArgumentException("Not compressible characters");
             }
-            String code = encodingMap.get(s);
-            encode.append(code);
-
+            long code = charCodes[c];
+            for (int bit = length - 1; bit >= 0; bit--) {
+                encode.append((code >>> bit & 1) == 0 ? '0' : '1');
+            }
         }
-        this.outputNum += encode.length();
+        record(input.length(), encode.length());
         return encode.toString();
     }
 
+    /**
+     * Compresses the input string into packed bits, eight to a byte. This is the same bit
+     * sequence {@link #compress(String)} spells out with one char per bit.
+     *
+     * @param input the string to compress, can be the empty string
+     * @return the packed encoding of the input
+     * @throws IllegalArgumentException if the input is null or if the input contains characters
+     *                                  that are not compressible
+     */
+    public PackedBits compressPacked(String input) {
+        if (input == null) {
+            throw new IllegalArgumentException("null input");
+        }
+        BitWriter writer = new BitWriter(input.length() / 2);
+        encode(input, 0, input.length(), writer);
+        record(input.length(), 8 * PackedBits.byteLength(writer.bitLength()));
+        return writer.toPackedBits();
+    }
+
+    /**
+     * Compresses a string like {@link #compressPacked(String)}, also recording a sync point,
+     * the bit offset at which a character's code starts, every {@code syncInterval}
+     * characters. {@link #decompress(HuffmanBlocks, int, int)} uses them to decode any range
+     * of characters while skipping over all but at most {@code syncInterval - 1} characters
+     * before it. The sync points cost 8 bytes each and nothing in the bits themselves.
+     *
+     * @param input        the String to be compressed, can be empty
+     * @param syncInterval the number of characters between sync points
+     * @return the packed encoding and its sync points
+     * @throws IllegalArgumentException if the input is null or contains characters that are
+     *                                  not compressible, or syncInterval is not positive
+     */
+    public HuffmanBlocks compressIndexed(String input, int syncInterval) {
+        if (input == null) {
+            throw new IllegalArgumentException("null input");
+        }
+        if (syncInterval <= 0) {
+            throw new IllegalArgumentException("sync interval is not positive");
+        }
+        int length = input.length();
+        int blocks = (int) (((long) length + syncInterval - 1) / syncInterval);
+        long[] bitOffsets = new long[blocks + 1];
+        BitWriter writer = new BitWriter(length / 2);
+        for (int i = 0; i < blocks; i++) {
+            int start = i * syncInterval;
+            encode(input, start, (int) Math.min((long) start + syncInterval, length), writer);
+            bitOffsets[i + 1] = writer.bitLength();
+        }
+        record(length, 8 * PackedBits.byteLength(writer.bitLength()));
+        return new HuffmanBlocks(writer.toPackedBits(), bitOffsets, syncInterval, length);
+    }
+
+    /**
+     * Compresses the input string into packed bits written to {@code out}, starting at its
+     * position. The last byte written is padded with zero bits.
+     *
+     * @param input the string to compress, can be the empty string
+     * @param out   the buffer to write to
+     * @return the number of meaningful bits written
+     * @throws IllegalArgumentException if the input or out is null or if the input contains
+     *                                  characters that are not compressible
+     * @throws java.nio.BufferOverflowException if out is too small for the encoding
+     */
+    public long compress(String input, ByteBuffer out) {
+        if (input == null) {
+            throw new IllegalArgumentException("null input");
+        }
+        BitWriter writer = new BitWriter(out);
+        encode(input, 0, input.length(), writer);
+        writer.flush();
+        record(input.length(), 8 * PackedBits.byteLength(writer.bitLength()));
+        return writer.bitLength();
+    }
+
+    /**
+     * Writes the codes for the characters of {@code input} from {@code start} (inclusive) to
+     * {@code end} (exclusive). Statistics are left to the caller, which knows how the output is
+     * framed.
+     */
+    void encode(CharSequence input, int start, int end, BitWriter writer) {
+        long[] codes = charCodes;
+        byte[] lengths = charLengths;
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            int length = c < lengths.length ? lengths[c] : 0;
+            if (length == 0) {
+                throw new IllegalArgumentException("Not compressible characters");
+            }
+            writer.append(codes[c], length);
+        }
+    }
+
+    /**
+     * Adds a completed compression to the totals behind {@link #compressionRatio()}.
+     *
+     * @param chars      the number of characters compressed
+     * @param outputBits the size of the output in bits
+     */
+    void record(long chars, long outputBits) {
+        inputNum.add(chars);
+        outputNum.add(outputBits);
+    }
+
     /**
      * Decompresses the input string.
      *
@@ -193,43 +465,94 @@ public class Huffman {
         if (input == null) {
             throw new IllegalArgumentException("input is null");
         }
-        StringBuilder decode = new StringBuilder();
-        if (input.equals("")) {
-            return "";
-        }
-        Node curr = root;
+        BitWriter bits = new BitWriter(input.length() / 8);
+        long word = 0;
+        int n = 0;
         for (int i = 0; i < input.length(); i++) {
-            String s = Character.toString(input.charAt(i));
-            if (!s.equals("0") && !s.equals("1")) {
+            char c = input.charAt(i);
+            if (c != '0' && c != '1') {
                 throw new IllegalArgumentException("contains characters not 0 or 1");
             }
-            if (curr.s == null) {
-                if (s.equals("0")) {
-                    if (curr.left != null) {
-                        curr = curr.left;
-                    } else {
-                        throw new IllegalArgumentException("input contains sequence " +
-                                "that is not decodable");
-                    }
-                } else {
-                    if (curr.right != null) {
-                        curr = curr.right;
-                    } else {
-                        throw new IllegalArgumentException("input contains sequence " +
-                                "that is not decodable");
-                    }
-                }
-            } else {
-                decode.append(curr.s);
-                curr = root;
-                i--;
+            word = (word << 1) | (c - '0');
+            if (++n == 64) {
+                bits.write(word, 64);
+                word = 0;
+                n = 0;
             }
         }
-        if (curr.s == null) {
-            throw new IllegalArgumentException("input contains sequence " +
-                    "that is not decodable");
-        } else {
-            decode.append(curr.s);
+        bits.write(word, n);
+        return decode(new BitReader(bits.toPackedBits()));
+    }
+
+    /**
+     * Decompresses packed bits produced by {@link #compressPacked(String)}.
+     *
+     * @param input the packed bits to decompress
+     * @return the decoded string
+     * @throws IllegalArgumentException if the input is null or contains a sequence of bits that
+     *                                  is not decodable
+     */
+    public String decompressPacked(PackedBits input) {
+        if (input == null) {
+            throw new IllegalArgumentException("input is null");
+        }
+        return decode(new BitReader(input));
+    }
+
+    /**
+     * Decompresses the characters {@code [from, to)} of an encoding made by {@link
+     * #compressIndexed(String, int)} or {@link ParallelHuffman#compress(CharSequence)} with
+     * this codebook. Decoding starts at the last sync point at or before {@code from}, so the
+     * cost is proportional to the range plus at most one sync interval, however long the
+     * whole encoding is.
+     *
+     * @param input the encoding and its sync points
+     * @param from  the index of the first character to decode
+     * @param to    one past the index of the last character to decode
+     * @return the decoded characters
+     * @throws IllegalArgumentException if the input is null, the range is not within the
+     *                                  encoded characters, or the bits are not decodable
+     */
+    public String decompress(HuffmanBlocks input, int from, int to) {
+        if (input == null) {
+            throw new IllegalArgumentException("input is null");
+        }
+        if (from < 0 || from > to || to > input.length) {
+            throw new IllegalArgumentException("range out of bounds");
+        }
+        if (from == to) {
+            return "";
+        }
+        int block = from / input.blockChars;
+        BitReader reader = new BitReader(input.bits, input.bitOffsets[block],
+                input.bitOffsets[input.blockCount()]);
+        for (int i = input.blockStart(block); i < from; i++) {
+            decoder.decode(reader);
+        }
+        char[] out = new char[to - from];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = (char) decoder.decode(reader);
+        }
+        return new String(out);
+    }
+
+    /**
+     * Decompresses {@code bitLength} packed bits read from {@code in}, starting at its position.
+     *
+     * @param in        the buffer holding the packed bits
+     * @param bitLength the number of meaningful bits
+     * @return the decoded string
+     * @throws IllegalArgumentException if in is null, bitLength is negative or longer than the
+     *                                  buffer, or the bits are not decodable
+     */
+    public String decompress(ByteBuffer in, long bitLength) {
+        return decode(new BitReader(in, bitLength));
+    }
+
+    private String decode(BitReader reader) {
+        StringBuilder decode = new StringBuilder();
+        while (reader.remaining() > 0) {
+            decode.append((char) decoder.decode(reader));
         }
         return decode.toString();
     }
@@ -238,16 +561,27 @@ public class Huffman {
      * Computes the compression ratio so far. This is the length of all output strings from {@link
      * #compress(String)} divided by the length of all input strings to {@link #compress(String)}.
      * Assume that each char in the input string is a 16 bit int.
+     * <p>
+     * Packed output from {@link #compressPacked(String)} and {@link #compress(String,
+     * ByteBuffer)} is counted in whole bytes, padding included, since that is what it occupies.
      *
      * @return the ratio of the total output length to the total input length in bits
      * @throws IllegalStateException if no calls have been made to {@link #compress(String)} before
      *                               calling this method
      */
     public double compressionRatio() {
-        if (this.outputNum == 0) {
-            throw new IllegalStateException("no calls to compress");
-        }
-        return (double) outputNum / ((double) inputNum * 16.0);
+        return statistics().compressionRatio();
+    }
+
+    /**
+     * Takes a snapshot of the totals behind {@link #compressionRatio()}. Totals are kept in
+     * {@link LongAdder}s, so concurrent compressions never contend on them; a snapshot taken
+     * while compressions are in flight may count the input of one before its output.
+     *
+     * @return the characters compressed and output bits produced so far
+     */
+    public CompressionStats statistics() {
+        return new CompressionStats(inputNum.sum(), outputNum.sum());
     }
 
     /**
@@ -263,15 +597,45 @@ public class Huffman {
         return this.expected / this.sum;
     }
 
-    class Node {
-        String s;
-        int freq;
-        Node left;
-        Node right;
+    /**
+     * The ways a {@code Huffman} instance can build its tree.
+     */
+    public enum Construction {
+        /**
+         * Repeatedly merges the two lightest subtrees taken from a min-heap, in O(n log n).
+         * Codes are read off the tree, so they are generally not canonical. This is what
+         * {@link #Huffman(String)} and {@link #Huffman(Map)} use.
+         */
+        HEAP {
+            @Override
+            Codebook codebook(Alphabet alphabet) {
+                return treeCodebook(alphabet);
+            }
+        },
+        /**
+         * Like {@link #HEAP}, but takes subtrees from a {@link RadixHeap}. Merged weights never
+         * decrease, so a monotone queue suffices, and it avoids comparison-heap sifts; this
+         * pays off for large alphabets. Codes are read off the tree, and equal weights may be
+         * merged in a different order than with {@link #HEAP}.
+         */
+        RADIX {
+            @Override
+            Codebook codebook(Alphabet alphabet) {
+                return radixCodebook(alphabet);
+            }
+        },
+        /**
+         * Sorts the frequencies once, with a counting sort when they are small, and merges them
+         * with two queues in O(n). Only code lengths are kept, and codes are assigned
+         * canonically.
+         */
+        TWO_QUEUE {
+            @Override
+            Codebook codebook(Alphabet alphabet) {
+                return Codebook.canonical(alphabet.symbols, TwoQueue.codeLengths(alphabet.freqs));
+            }
+        };
 
-        public Node(String s, int freq) {
-            this.s = s;
-            this.freq = freq;
-        }
+        abstract Codebook codebook(Alphabet alphabet);
     }
 }
@@ -0,0 +1,68 @@
+/**
+ * The output of {@link ParallelHuffman#compress(CharSequence)} and {@link
+ * Huffman#compressIndexed(String, int)}: the encodings of consecutive blocks of input as one
+ * bit string, plus the bit offset at which each block starts. Every block except possibly the
+ * last holds {@link #blockChars()} characters, so the offsets are sync points from which any
+ * block, or with {@link Huffman#decompress(HuffmanBlocks, int, int)} any range of characters,
+ * can be decoded on its own.
+ */
+public final class HuffmanBlocks {
+
+    final PackedBits bits;
+    final long[] bitOffsets;
+    final int blockChars;
+    final int length;
+
+    HuffmanBlocks(PackedBits bits, long[] bitOffsets, int blockChars, int length) {
+        this.bits = bits;
+        this.bitOffsets = bitOffsets;
+        this.blockChars = blockChars;
+        this.length = length;
+    }
+
+    /**
+     * @return the encoding of all blocks, identical to what {@link
+     *         Huffman#compressPacked(String)} produces for the whole input
+     */
+    public PackedBits bits() {
+        return bits;
+    }
+
+    /**
+     * @return the number of blocks
+     */
+    public int blockCount() {
+        return bitOffsets.length - 1;
+    }
+
+    /**
+     * @return the number of characters in each block but the last
+     */
+    public int blockChars() {
+        return blockChars;
+    }
+
+    /**
+     * @return the number of characters encoded
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @param block the index of a block, or {@link #blockCount()} for the end of the bits
+     * @return the offset of the first bit of the block
+     * @throws IndexOutOfBoundsException if block is out of range
+     */
+    public long bitOffset(int block) {
+        return bitOffsets[block];
+    }
+
+    int blockStart(int block) {
+        return block * blockChars;
+    }
+
+    int blockEnd(int block) {
+        return (int) Math.min((long) (block + 1) * blockChars, length);
+    }
+}
@@ -0,0 +1,250 @@
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads a container written by {@link HuffmanContainerWriter}. Opening one reads only the
+ * header and the trailing index; each block is then read on demand, so blocks can be
+ * verified or decoded individually and in any order without touching the others.
+ * <p>
+ * Instances are not thread-safe, since they share the channel's position.
+ */
+public class HuffmanContainerReader implements Closeable {
+
+    private final SeekableByteChannel channel;
+    private final Huffman huffman;
+    private final int blockChars;
+    private final long[] offsets;
+    private final int[] blockLengths;
+    private final long indexOffset;
+    private final long length;
+
+    /**
+     * Opens a container, reading its header and index.
+     *
+     * @param channel the container, positioned anywhere
+     * @throws IllegalArgumentException if channel is null
+     * @throws IOException              if the channel fails, or its header or index is not
+     *                                  that of a valid container
+     */
+    public HuffmanContainerReader(SeekableByteChannel channel) throws IOException {
+        if (channel == null) {
+            throw new IllegalArgumentException("channel is null");
+        }
+        this.channel = channel;
+        long size = channel.size();
+
+        ByteBuffer head = read(0, (int) Math.min(size, 9));
+        if (head.remaining() < 9 || head.getInt() != HuffmanContainerWriter.MAGIC) {
+            throw new IOException("not a Huffman container");
+        }
+        if (head.get() != HuffmanContainerWriter.VERSION) {
+            throw new IOException("unsupported container version");
+        }
+        int headerLength = head.getInt();
+        if (headerLength <= 0 || 13L + headerLength > size) {
+            throw new IOException("corrupt codebook header");
+        }
+        ByteBuffer header = read(9, headerLength + 4);
+        byte[] codebook = new byte[headerLength];
+        header.get(codebook);
+        try {
+            this.huffman = new Huffman(codebook);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("corrupt codebook header", e);
+        }
+        this.blockChars = header.getInt();
+        if (blockChars <= 0 || blockChars > HuffmanContainerWriter.MAX_BLOCK_CHARS) {
+            throw new IOException("corrupt block size");
+        }
+
+        int footer = HuffmanContainerWriter.FOOTER_BYTES;
+        if (size < 13L + headerLength + footer) {
+            throw new IOException("container is truncated");
+        }
+        ByteBuffer tail = read(size - footer, footer);
+        this.indexOffset = tail.getLong();
+        if (tail.getInt() != HuffmanContainerWriter.INDEX_MAGIC
+                || indexOffset < 13L + headerLength || indexOffset > size - footer - 4) {
+            throw new IOException("corrupt block index");
+        }
+        ByteBuffer index = read(indexOffset, (int) Math.min(Integer.MAX_VALUE,
+                size - footer - indexOffset));
+        int blocks = index.getInt();
+        if (blocks < 0 || (long) blocks * HuffmanContainerWriter.INDEX_ENTRY_BYTES
+                != index.remaining()) {
+            throw new IOException("corrupt block index");
+        }
+        this.offsets = new long[blocks];
+        this.blockLengths = new int[blocks];
+        long total = 0;
+        for (int i = 0; i < blocks; i++) {
+            offsets[i] = index.getLong();
+            blockLengths[i] = index.getInt();
+            int expected = i == blocks - 1 ? blockLengths[i] : blockChars;
+            if (offsets[i] < 13L + headerLength || offsets[i] >= indexOffset
+                    || (i > 0 && offsets[i] <= offsets[i - 1]) || blockLengths[i] <= 0
+                    || blockLengths[i] > blockChars || blockLengths[i] != expected) {
+                throw new IOException("corrupt block index");
+            }
+            total += blockLengths[i];
+        }
+        this.length = total;
+    }
+
+    private ByteBuffer read(long position, int bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(bytes);
+        channel.position(position);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new EOFException("container is truncated");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * @return the codebook stored in the container
+     */
+    public Huffman huffman() {
+        return huffman;
+    }
+
+    /**
+     * @return the number of blocks
+     */
+    public int blockCount() {
+        return offsets.length;
+    }
+
+    /**
+     * @return the number of characters in every block but the last
+     */
+    public int blockChars() {
+        return blockChars;
+    }
+
+    /**
+     * @param block the block index
+     * @return the number of characters in the block
+     * @throws IndexOutOfBoundsException if block is out of range
+     */
+    public int blockLength(int block) {
+        return blockLengths[block];
+    }
+
+    /**
+     * @return the total number of characters in the container
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Reads a block's payload and checks it against its CRC32C without decoding it.
+     *
+     * @param block the block index
+     * @return true if the payload matches its checksum
+     * @throws IndexOutOfBoundsException if block is out of range
+     * @throws IOException               if the channel fails or the block header is corrupt
+     */
+    public boolean verifyBlock(int block) throws IOException {
+        return checksumMatches(readPayload(block));
+    }
+
+    /**
+     * Reads, verifies and decodes one block.
+     *
+     * @param block the block index
+     * @return the block's characters
+     * @throws IndexOutOfBoundsException if block is out of range
+     * @throws IOException               if the channel fails, or the block is corrupt, fails
+     *                                   its checksum or is not decodable
+     */
+    public String readBlock(int block) throws IOException {
+        Payload payload = readPayload(block);
+        if (!checksumMatches(payload)) {
+            throw new IOException("block " + block + " fails its checksum");
+        }
+        char[] out = new char[blockLengths[block]];
+        BitReader reader = new BitReader(payload.bytes, payload.bitLength);
+        try {
+            for (int i = 0; i < out.length; i++) {
+                out[i] = (char) huffman.decoder.decode(reader);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("block " + block + " is not decodable", e);
+        }
+        if (reader.remaining() != 0) {
+            throw new IOException("block " + block + " has trailing bits");
+        }
+        return new String(out);
+    }
+
+    /**
+     * Reads, verifies and decodes every block.
+     *
+     * @return the container's characters
+     * @throws IOException if the channel fails, the content does not fit in a String, or a
+     *                     block is corrupt, fails its checksum or is not decodable
+     */
+    public String readAll() throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("container is too large for a String");
+        }
+        StringBuilder sb = new StringBuilder((int) length);
+        for (int i = 0; i < offsets.length; i++) {
+            sb.append(readBlock(i));
+        }
+        return sb.toString();
+    }
+
+    private static final class Payload {
+        final ByteBuffer bytes;
+        final long bitLength;
+        final int crc;
+
+        Payload(ByteBuffer bytes, long bitLength, int crc) {
+            this.bytes = bytes;
+            this.bitLength = bitLength;
+            this.crc = crc;
+        }
+    }
+
+    private Payload readPayload(int block) throws IOException {
+        long offset = offsets[block];
+        long end = block + 1 < offsets.length ? offsets[block + 1] : indexOffset;
+        ByteBuffer head = read(offset, HuffmanContainerWriter.BLOCK_HEADER_BYTES);
+        int chars = head.getInt();
+        long bitLength = head.getInt() & 0xffffffffL;
+        int crc = head.getInt();
+        long bytes = PackedBits.byteLength(bitLength);
+        if (chars != blockLengths[block]
+                || offset + HuffmanContainerWriter.BLOCK_HEADER_BYTES + bytes != end) {
+            throw new IOException("block " + block + " header is corrupt");
+        }
+        ByteBuffer payload = read(offset + HuffmanContainerWriter.BLOCK_HEADER_BYTES,
+                (int) bytes);
+        return new Payload(payload, bitLength, crc);
+    }
+
+    private static boolean checksumMatches(Payload payload) {
+        CRC32C crc = new CRC32C();
+        crc.update(payload.bytes.duplicate());
+        return (int) crc.getValue() == payload.crc;
+    }
+
+    /**
+     * Closes the channel.
+     *
+     * @throws IOException if the channel fails
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,185 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class HuffmanContainerTest {
+
+    private static final String TEXT = "the quick brown fox jumps over the lazy dog. ";
+
+    private static byte[] write(Huffman huffman, String text, int blockChars) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (HuffmanContainerWriter writer =
+                     new HuffmanContainerWriter(huffman, bytes, blockChars)) {
+            writer.write(text);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static HuffmanContainerReader open(Path path, byte[] container) throws IOException {
+        Files.write(path, container);
+        SeekableByteChannel channel = Files.newByteChannel(path);
+        return new HuffmanContainerReader(channel);
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        String text = TEXT.repeat(300);
+        byte[] container = write(new Huffman(TEXT), text, 1000);
+        Path path = Files.createTempFile("huffman", ".hufc");
+        try (HuffmanContainerReader reader = open(path, container)) {
+            assertEquals(text.length(), reader.length());
+            assertEquals(14, reader.blockCount());
+            assertEquals(1000, reader.blockChars());
+            assertEquals(text.length() - 13000, reader.blockLength(13));
+            assertEquals(text, reader.readAll());
+            assertEquals(text.substring(7000, 8000), reader.readBlock(7));
+            assertTrue(reader.huffman().isCanonical());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void testStatisticsRecordedOnCallersInstance() throws IOException {
+        Huffman huffman = new Huffman(TEXT);
+        assertFalse(huffman.isCanonical());
+        byte[] container = write(huffman, TEXT.repeat(3), 50);
+        assertEquals(3 * TEXT.length(), huffman.statistics().inputChars());
+        assertTrue(huffman.statistics().outputBits() > 0);
+        assertTrue(huffman.statistics().outputBits() < 8L * container.length);
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        byte[] container = write(new Huffman(TEXT), "", 1000);
+        Path path = Files.createTempFile("huffman", ".hufc");
+        try (HuffmanContainerReader reader = open(path, container)) {
+            assertEquals(0, reader.blockCount());
+            assertEquals("", reader.readAll());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void testCorruptBlockIsDetected() throws IOException {
+        String text = TEXT.repeat(100);
+        byte[] container = write(new Huffman(TEXT), text, 500);
+        Path path = Files.createTempFile("huffman", ".hufc");
+        try {
+            try (HuffmanContainerReader reader = open(path, container)) {
+                for (int i = 0; i < reader.blockCount(); i++) {
+                    assertTrue(reader.verifyBlock(i));
+                }
+            }
+            // Flip a bit in the middle of the payload, which lies in block 4 of 9.
+            container[container.length / 2] ^= 0x10;
+            try (HuffmanContainerReader reader = open(path, container)) {
+                int bad = 0;
+                for (int i = 0; i < reader.blockCount(); i++) {
+                    if (!reader.verifyBlock(i)) {
+                        bad++;
+                        try {
+                            reader.readBlock(i);
+                            fail();
+                        } catch (IOException expected) {
+                            assertTrue(expected.getMessage().contains("checksum"));
+                        }
+                    } else {
+                        assertEquals(text.substring(500 * i, 500 * (i + 1)), reader.readBlock(i));
+                    }
+                }
+                assertEquals(1, bad);
+            }
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test (expected = IOException.class)
+    public void testNotAContainer() throws IOException {
+        Path path = Files.createTempFile("huffman", ".hufc");
+        try {
+            open(path, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16});
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test (expected = IOException.class)
+    public void testTruncated() throws IOException {
+        byte[] container = write(new Huffman(TEXT), TEXT.repeat(10), 100);
+        Path path = Files.createTempFile("huffman", ".hufc");
+        try {
+            open(path, Arrays.copyOf(container, container.length - 5));
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testBlockSizeOutOfRange() throws IOException {
+        new HuffmanContainerWriter(new Huffman(TEXT), new ByteArrayOutputStream(), 0);
+    }
+
+    @Test
+    public void testRejectedWriteKeepsAcceptedChars() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (HuffmanContainerWriter writer =
+                     new HuffmanContainerWriter(new Huffman("aaaabbbccd"), bytes, 4)) {
+            writer.write("abca");
+            writer.write("bcd");
+            try {
+                writer.write("bz");
+                fail("wrote an uncompressible char");
+            } catch (IllegalArgumentException expected) {
+            }
+            writer.write("aaaa");
+        }
+        Path path = Files.createTempFile("huffman", ".hufc");
+        try (HuffmanContainerReader reader = open(path, bytes.toByteArray())) {
+            assertEquals("abcabcdaaaa", reader.readAll());
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void testCloseClosesStreamAfterFailedWrite() throws IOException {
+        boolean[] closed = new boolean[1];
+        boolean[] failing = new boolean[1];
+        OutputStream stream = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                if (failing[0]) {
+                    throw new IOException("disk full");
+                }
+            }
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        HuffmanContainerWriter writer = new HuffmanContainerWriter(new Huffman(TEXT), stream, 100);
+        writer.write(TEXT);
+        failing[0] = true;
+        try {
+            writer.close();
+            fail("closed onto a failing stream");
+        } catch (IOException e) {
+            assertTrue(closed[0]);
+        }
+        closed[0] = false;
+        writer.close();
+        assertFalse(closed[0]);
+    }
+}
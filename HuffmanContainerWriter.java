@@ -0,0 +1,223 @@
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * A {@link Writer} that produces a self-describing Huffman container: the codebook travels
+ * with the data, every block carries its bit length and a CRC32C of its payload, and a
+ * trailing index lets {@link HuffmanContainerReader} seek to, verify or decode any block on
+ * its own. All integers are big-endian:
+ * <pre>
+ *     int   MAGIC
+ *     byte  VERSION
+ *     int   header length
+ *     byte  code-length header, see {@link Huffman#codeLengthHeader()}
+ *     int   characters per block
+ *     block*
+ *     int   block count              (the index)
+ *     (long offset, int chars)*      one per block, offset from the start of the container
+ *     long  index offset
+ *     int   INDEX_MAGIC
+ * </pre>
+ * where each block is
+ * <pre>
+ *     int   chars
+ *     int   payload length in bits
+ *     int   CRC32C of the payload bytes
+ *     byte  payload, padded to a whole byte
+ * </pre>
+ * Every block but the last holds exactly the characters-per-block count. Characters are
+ * encoded with the canonical form of the given codebook, which has the same code lengths.
+ */
+public class HuffmanContainerWriter extends Writer {
+
+    static final int MAGIC = 0x48554643; // "HUFC"
+    static final int INDEX_MAGIC = 0x48554649; // "HUFI"
+    static final byte VERSION = 1;
+
+    /**
+     * The default number of characters per block.
+     */
+    public static final int DEFAULT_BLOCK_CHARS = 1 << 16;
+
+    /**
+     * The largest accepted block size, which keeps a block's bit length within an int for any
+     * code length.
+     */
+    public static final int MAX_BLOCK_CHARS = 1 << 24;
+
+    // Sizes of the fixed parts of the format.
+    static final int BLOCK_HEADER_BYTES = 12;
+    static final int INDEX_ENTRY_BYTES = 12;
+    static final int FOOTER_BYTES = 12;
+
+    // The caller's instance, which records the statistics, and its canonical form, which the
+    // header describes and blocks are encoded with.
+    private final Huffman huffman;
+    private final Huffman codec;
+    private final DataOutputStream out;
+    private final char[] block;
+    private final BitWriter bits;
+    private final CRC32C crc = new CRC32C();
+    private long[] offsets = new long[16];
+    private int[] blockLengths = new int[16];
+    private int blocks;
+    private int pending;
+    private long position;
+    private boolean closed;
+
+    /**
+     * Constructs a writer with the default block size and writes the container header.
+     *
+     * @param huffman the codebook to encode with
+     * @param out     the stream to write the container to
+     * @throws IllegalArgumentException if huffman or out is null
+     * @throws IOException              if the header cannot be written
+     */
+    public HuffmanContainerWriter(Huffman huffman, OutputStream out) throws IOException {
+        this(huffman, out, DEFAULT_BLOCK_CHARS);
+    }
+
+    /**
+     * Constructs a writer and writes the container header.
+     *
+     * @param huffman    the codebook to encode with
+     * @param out        the stream to write the container to
+     * @param blockChars the number of characters per block
+     * @throws IllegalArgumentException if huffman or out is null, or blockChars is not between
+     *                                  1 and {@link #MAX_BLOCK_CHARS}
+     * @throws IOException              if the header cannot be written
+     */
+    public HuffmanContainerWriter(Huffman huffman, OutputStream out, int blockChars)
+            throws IOException {
+        if (huffman == null) {
+            throw new IllegalArgumentException("huffman is null");
+        }
+        if (out == null) {
+            throw new IllegalArgumentException("output stream is null");
+        }
+        if (blockChars <= 0 || blockChars > MAX_BLOCK_CHARS) {
+            throw new IllegalArgumentException("block size out of range");
+        }
+        this.huffman = huffman;
+        this.codec = huffman.canonical();
+        this.out = new DataOutputStream(out);
+        this.block = new char[blockChars];
+        this.bits = new BitWriter(blockChars);
+        byte[] header = codec.codeLengthHeader();
+        this.out.writeInt(MAGIC);
+        this.out.writeByte(VERSION);
+        this.out.writeInt(header.length);
+        this.out.write(header);
+        this.out.writeInt(blockChars);
+        position = 13L + header.length;
+    }
+
+    /**
+     * Buffers characters, emitting a block each time one fills up. The characters are checked
+     * against the codebook's alphabet before any is buffered, so a rejected call leaves the
+     * container as it was.
+     *
+     * @throws IllegalArgumentException if a character is outside the codebook's alphabet
+     * @throws IOException              if the underlying stream fails or this writer is closed
+     */
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("writer is closed");
+        }
+        byte[] lengths = codec.charLengths;
+        for (int i = off; i < off + len; i++) {
+            char c = cbuf[i];
+            if (c >= lengths.length || lengths[c] == 0) {
+                throw new IllegalArgumentException("Not compressible characters");
+            }
+        }
+        while (len > 0) {
+            int n = Math.min(len, block.length - pending);
+            System.arraycopy(cbuf, off, block, pending, n);
+            pending += n;
+            off += n;
+            len -= n;
+            if (pending == block.length) {
+                emitBlock();
+            }
+        }
+    }
+
+    private void emitBlock() throws IOException {
+        if (pending == 0) {
+            return;
+        }
+        int chars = pending;
+        pending = 0;
+        bits.reset();
+        codec.encode(CharBuffer.wrap(block), 0, chars, bits);
+        long bitLength = bits.bitLength();
+        bits.flush();
+        byte[] payload = bits.out.array();
+        int bytes = bits.out.position();
+        crc.reset();
+        crc.update(payload, 0, bytes);
+
+        if (blocks == offsets.length) {
+            offsets = Arrays.copyOf(offsets, 2 * blocks);
+            blockLengths = Arrays.copyOf(blockLengths, 2 * blocks);
+        }
+        offsets[blocks] = position;
+        blockLengths[blocks] = chars;
+        blocks++;
+        out.writeInt(chars);
+        out.writeInt((int) bitLength);
+        out.writeInt((int) crc.getValue());
+        out.write(payload, 0, bytes);
+        position += BLOCK_HEADER_BYTES + bytes;
+        huffman.record(chars, 8L * bytes);
+    }
+
+    /**
+     * Flushes the underlying stream. Buffered characters stay buffered until their block fills
+     * up or the writer is closed, so every block but the last is full.
+     *
+     * @throws IOException if the underlying stream fails or this writer is closed
+     */
+    @Override
+    public void flush() throws IOException {
+        if (closed) {
+            throw new IOException("writer is closed");
+        }
+        out.flush();
+    }
+
+    /**
+     * Emits the last block and the index, and closes the underlying stream. The stream is
+     * closed even if the last block or the index cannot be written, leaving a container
+     * without an index.
+     *
+     * @throws IOException if the underlying stream fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            emitBlock();
+            long indexOffset = position;
+            out.writeInt(blocks);
+            for (int i = 0; i < blocks; i++) {
+                out.writeLong(offsets[i]);
+                out.writeInt(blockLengths[i]);
+            }
+            out.writeLong(indexOffset);
+            out.writeInt(INDEX_MAGIC);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command-line file compressor. Files are read and written through {@link FileChannel#map},
+ * one window at a time, so neither the input nor the output is ever copied into a {@code
+ * String}. Each byte of the input is treated as one ISO-8859-1 character.
+ * <p>
+ * Compression makes two passes over the mapped input: the first counts byte frequencies and
+ * builds a canonical codebook with {@link Huffman#Huffman(Map)}, the second encodes. The
+ * output is
+ * <pre>
+ *     int   MAGIC
+ *     int   header length
+ *     byte  code-length header, see {@link Huffman#codeLengthHeader()}
+ *     long  original length in bytes
+ *     long  payload length in bits
+ *     byte  payload
+ * </pre>
+ * Usage: {@code java HuffmanFileCompressor (compress | decompress) <input> <output>}
+ */
+public class HuffmanFileCompressor {
+
+    static final int MAGIC = 0x48554631; // "HUF1"
+
+    /**
+     * The largest mapped window. A multiple of 8 so bit writers never straddle two windows.
+     */
+    static final int WINDOW_BYTES = 1 << 30;
+
+    /**
+     * Byte counts are scaled down to keep the total frequency within this bound, since {@link
+     * Huffman#Huffman(Map)} takes each frequency as an int while a file's byte counts are
+     * longs. Bounding the total rather than each count keeps relative frequencies intact.
+     */
+    static final long MAX_TOTAL_FREQUENCY = 1 << 30;
+
+    public static void main(String[] args) {
+        if (args.length != 3 || !(args[0].equals("compress") || args[0].equals("decompress"))) {
+            System.err.println("usage: java HuffmanFileCompressor "
+                    + "(compress | decompress) <input> <output>");
+            System.exit(2);
+        }
+        Path in = Paths.get(args[1]);
+        Path out = Paths.get(args[2]);
+        try {
+            long start = System.nanoTime();
+            long[] sizes = args[0].equals("compress") ? compress(in, out) : decompress(in, out);
+            long millis = (System.nanoTime() - start) / 1000000;
+            System.out.println(args[1] + " (" + sizes[0] + " bytes) -> " + args[2] + " ("
+                    + sizes[1] + " bytes) in " + millis + " ms");
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println(args[0] + " failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode,
+                                        long position, long end) throws IOException {
+        return channel.map(mode, position, Math.min(WINDOW_BYTES, end - position));
+    }
+
+    /**
+     * Compresses a file.
+     *
+     * @param source the file to compress
+     * @param target the file to write, replaced if it exists
+     * @return the input and output sizes in bytes
+     * @throws IOException if either file cannot be read or written
+     */
+    static long[] compress(Path source, Path target) throws IOException {
+        try (FileChannel input = FileChannel.open(source, StandardOpenOption.READ)) {
+            long size = input.size();
+            long[] counts = new long[256];
+            for (long pos = 0; pos < size; pos += WINDOW_BYTES) {
+                MappedByteBuffer window = map(input, FileChannel.MapMode.READ_ONLY, pos, size);
+                while (window.hasRemaining()) {
+                    counts[window.get() & 0xFF]++;
+                }
+            }
+            Huffman huffman = new Huffman(alphabet(counts, size)).canonical();
+
+            long[] codes = huffman.charCodes;
+            byte[] lengths = huffman.charLengths;
+            long bitLength = 0;
+            for (int b = 0; b < lengths.length; b++) {
+                bitLength += counts[b] * lengths[b];
+            }
+
+            byte[] header = huffman.codeLengthHeader();
+            long dataStart = 4 + 4 + header.length + 8 + 8;
+            long outSize = dataStart + PackedBits.byteLength(bitLength);
+            try (FileChannel output = FileChannel.open(target, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                ByteBuffer prefix = ByteBuffer.allocate((int) dataStart);
+                prefix.putInt(MAGIC).putInt(header.length).put(header)
+                        .putLong(size).putLong(bitLength).flip();
+                while (prefix.hasRemaining()) {
+                    output.write(prefix, prefix.position());
+                }
+                BitWriter bits = new BitWriter(map(output, FileChannel.MapMode.READ_WRITE,
+                        dataStart, outSize)) {
+                    private long mapped = dataStart + this.out.capacity();
+
+                    @Override
+                    protected ByteBuffer overflow(ByteBuffer full) {
+                        try {
+                            ByteBuffer next = map(output, FileChannel.MapMode.READ_WRITE,
+                                    mapped, outSize);
+                            mapped += next.capacity();
+                            return next;
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                };
+                for (long pos = 0; pos < size; pos += WINDOW_BYTES) {
+                    MappedByteBuffer window = map(input, FileChannel.MapMode.READ_ONLY, pos, size);
+                    while (window.hasRemaining()) {
+                        int b = window.get() & 0xFF;
+                        bits.write(codes[b], lengths[b]);
+                    }
+                }
+                bits.flush();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } catch (IllegalArgumentException e) {
+                throw new IOException("corrupt payload", e);
+            }
+            return new long[] {size, outSize};
+        }
+    }
+
+    /**
+     * Turns byte counts into a frequency map, scaling them down if their total would overflow
+     * tree construction and padding the alphabet to the 2 characters {@link Huffman} requires.
+     */
+    static Map<Character, Integer> alphabet(long[] counts, long total) {
+        Map<Character, Integer> alphabet = new HashMap<>();
+        for (int b = 0; b < counts.length; b++) {
+            if (counts[b] > 0) {
+                long freq = total <= MAX_TOTAL_FREQUENCY
+                        ? counts[b] : Math.max(1, (long) ((double) counts[b] * MAX_TOTAL_FREQUENCY / total));
+                alphabet.put((char) b, (int) freq);
+            }
+        }
+        for (char c = 0; alphabet.size() < 2; c++) {
+            alphabet.putIfAbsent(c, 1);
+        }
+        return alphabet;
+    }
+
+    /**
+     * Decompresses a file written by {@link #compress(Path, Path)}.
+     *
+     * @param source the compressed file
+     * @param target the file to write, replaced if it exists
+     * @return the input and output sizes in bytes
+     * @throws IOException if either file cannot be read or written, or the input is not a
+     *                     valid compressed file
+     */
+    static long[] decompress(Path source, Path target) throws IOException {
+        try (FileChannel input = FileChannel.open(source, StandardOpenOption.READ)) {
+            long inSize = input.size();
+            MappedByteBuffer window = map(input, FileChannel.MapMode.READ_ONLY, 0, inSize);
+            Huffman huffman;
+            long size;
+            long bitLength;
+            try {
+                if (window.getInt() != MAGIC) {
+                    throw new IOException("not a compressed file");
+                }
+                int headerLength = window.getInt();
+                if (headerLength <= 0 || headerLength > window.remaining()) {
+                    throw new IOException("header length is out of range");
+                }
+                byte[] header = new byte[headerLength];
+                window.get(header);
+                huffman = new Huffman(header);
+                size = window.getLong();
+                bitLength = window.getLong();
+            } catch (BufferUnderflowException e) {
+                throw new IOException("truncated header");
+            } catch (IllegalArgumentException e) {
+                throw new IOException("corrupt header", e);
+            }
+            Codebook codebook = huffman.codebook;
+            if (codebook.symbols[codebook.size() - 1] > 0xFF) {
+                throw new IOException("codebook is not a byte alphabet");
+            }
+            if (bitLength < 0 || PackedBits.byteLength(bitLength) > inSize - window.position()) {
+                throw new IOException("payload is truncated");
+            }
+            // Every code is at least one bit long.
+            if (size < 0 || size > bitLength) {
+                throw new IOException("original length does not match the payload");
+            }
+            BitReader bits = new BitReader(window, bitLength) {
+                private long mapped = window.capacity();
+
+                @Override
+                protected ByteBuffer underflow(ByteBuffer empty) {
+                    try {
+                        ByteBuffer next = map(input, FileChannel.MapMode.READ_ONLY,
+                                mapped, inSize);
+                        mapped += next.capacity();
+                        return next;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            };
+            try (FileChannel output = FileChannel.open(target, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                for (long pos = 0; pos < size; pos += WINDOW_BYTES) {
+                    MappedByteBuffer decoded = map(output, FileChannel.MapMode.READ_WRITE,
+                            pos, size);
+                    while (decoded.hasRemaining()) {
+                        decoded.put((byte) huffman.decoder.decode(bits));
+                    }
+                }
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } catch (IllegalArgumentException e) {
+                throw new IOException("corrupt payload", e);
+            }
+            if (bits.remaining() != 0) {
+                throw new IOException("payload is longer than the original length");
+            }
+            return new long[] {inSize, size};
+        }
+    }
+}
@@ -0,0 +1,137 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class HuffmanFileCompressorTest {
+
+    private static byte[] roundTrip(byte[] data) throws IOException {
+        Path in = Files.createTempFile("huffman", ".in");
+        Path packed = Files.createTempFile("huffman", ".huf");
+        Path out = Files.createTempFile("huffman", ".out");
+        try {
+            Files.write(in, data);
+            HuffmanFileCompressor.compress(in, packed);
+            HuffmanFileCompressor.decompress(packed, out);
+            return Files.readAllBytes(out);
+        } finally {
+            Files.deleteIfExists(in);
+            Files.deleteIfExists(packed);
+            Files.deleteIfExists(out);
+        }
+    }
+
+    @Test
+    public void testRoundTripText() throws IOException {
+        byte[] data = "abracadabra, the quick brown fox\n".repeat(1000).getBytes("UTF-8");
+        assertArrayEquals(data, roundTrip(data));
+    }
+
+    @Test
+    public void testRoundTripBinary() throws IOException {
+        byte[] data = new byte[50000];
+        new Random(3).nextBytes(data);
+        assertArrayEquals(data, roundTrip(data));
+    }
+
+    @Test
+    public void testRoundTripDegenerate() throws IOException {
+        assertArrayEquals(new byte[0], roundTrip(new byte[0]));
+        assertArrayEquals(new byte[] {7, 7, 7}, roundTrip(new byte[] {7, 7, 7}));
+    }
+
+    @Test
+    public void testCompressedSmaller() throws IOException {
+        Path in = Files.createTempFile("huffman", ".in");
+        Path packed = Files.createTempFile("huffman", ".huf");
+        try {
+            Files.write(in, "aaaaaaaabbbbcc d".repeat(1000).getBytes("UTF-8"));
+            long[] sizes = HuffmanFileCompressor.compress(in, packed);
+            assertEquals(16000, sizes[0]);
+            assertEquals(Files.size(packed), sizes[1]);
+            assertTrue(sizes[1] < sizes[0] / 3);
+        } finally {
+            Files.deleteIfExists(in);
+            Files.deleteIfExists(packed);
+        }
+    }
+
+    @Test (expected = IOException.class)
+    public void testNotCompressedFile() throws IOException {
+        Path in = Files.createTempFile("huffman", ".huf");
+        Path out = Files.createTempFile("huffman", ".out");
+        try {
+            Files.write(in, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+            HuffmanFileCompressor.decompress(in, out);
+        } finally {
+            Files.deleteIfExists(in);
+            Files.deleteIfExists(out);
+        }
+    }
+
+    @Test (expected = IOException.class)
+    public void testHeaderLengthOutOfRange() throws IOException {
+        Path in = Files.createTempFile("huffman", ".huf");
+        Path out = Files.createTempFile("huffman", ".out");
+        try {
+            Files.write(in, ByteBuffer.allocate(24).putInt(HuffmanFileCompressor.MAGIC)
+                    .putInt(Integer.MAX_VALUE).array());
+            HuffmanFileCompressor.decompress(in, out);
+        } finally {
+            Files.deleteIfExists(in);
+            Files.deleteIfExists(out);
+        }
+    }
+
+    // Compresses data, overwrites the original length and bit length in the header, then
+    // decompresses the result.
+    private static void decompressEdited(byte[] data, long size, long bitLength, Path out)
+            throws IOException {
+        Path in = Files.createTempFile("huffman", ".in");
+        Path packed = Files.createTempFile("huffman", ".huf");
+        try {
+            Files.write(in, data);
+            HuffmanFileCompressor.compress(in, packed);
+            byte[] file = Files.readAllBytes(packed);
+            ByteBuffer buffer = ByteBuffer.wrap(file);
+            buffer.position(8 + buffer.getInt(4));
+            buffer.putLong(size).putLong(bitLength);
+            Files.write(packed, file);
+            HuffmanFileCompressor.decompress(packed, out);
+        } finally {
+            Files.deleteIfExists(in);
+            Files.deleteIfExists(packed);
+        }
+    }
+
+    @Test
+    public void testLengthLongerThanPayload() throws IOException {
+        Path out = Files.createTempFile("huffman", ".out");
+        Files.delete(out);
+        try {
+            decompressEdited("abracadabra".getBytes("UTF-8"), 1L << 40, 16, out);
+            fail("decompressed a length the payload cannot hold");
+        } catch (IOException e) {
+            assertFalse(Files.exists(out));
+        } finally {
+            Files.deleteIfExists(out);
+        }
+    }
+
+    @Test (expected = IOException.class)
+    public void testCorruptPayload() throws IOException {
+        byte[] data = "abracadabra".getBytes("UTF-8");
+        Path out = Files.createTempFile("huffman", ".out");
+        try {
+            // One bit per char is too few for this codebook, so decoding runs out of bits.
+            decompressEdited(data, data.length, data.length, out);
+        } finally {
+            Files.deleteIfExists(out);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+/**
+ * A {@link Reader} that decodes the frames written by {@link HuffmanWriter} from an {@link
+ * InputStream}. Only one frame is held in memory at a time.
+ */
+public class HuffmanReader extends Reader {
+
+    private final Huffman huffman;
+    private final Frames frames;
+    private boolean closed;
+
+    /**
+     * Constructs a reader.
+     *
+     * @param huffman the codebook the frames were encoded with
+     * @param in      the stream to read frames from
+     * @throws IllegalArgumentException if huffman or in is null
+     */
+    public HuffmanReader(Huffman huffman, InputStream in) {
+        if (huffman == null) {
+            throw new IllegalArgumentException("huffman is null");
+        }
+        if (in == null) {
+            throw new IllegalArgumentException("input stream is null");
+        }
+        this.huffman = huffman;
+        this.frames = new Frames(in);
+    }
+
+    /**
+     * Decodes characters.
+     *
+     * @throws IOException if the underlying stream fails, ends inside a frame, holds bits that
+     *                     are not decodable, or this reader is closed
+     */
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("reader is closed");
+        }
+        return frames.read(cbuf, off, len, bits -> (char) huffman.decoder.decode(bits));
+    }
+
+    /**
+     * Closes the underlying stream.
+     *
+     * @throws IOException if the underlying stream fails
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        frames.close();
+    }
+}
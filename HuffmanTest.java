@@ -1,3 +1,5 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.*;
 
 
@@ -213,4 +215,182 @@ public class HuffmanTest {
 
 
 
+    @Test
+    public void testCompressPackedMatchesCompress() {
+        Huffman huff = new Huffman(" abcccdfsdsjkfaknjweoijoiscdefghijklmnopqrstuvwxyz,.");
+        String input = "this is a sentence.";
+        PackedBits packed = huff.compressPacked(input);
+        assertEquals(huff.compress(input), packed.toString());
+        assertEquals(input, huff.decompressPacked(packed));
+    }
+
+    @Test
+    public void testCompressIntoByteBuffer() {
+        Huffman huff = new Huffman("aaaabbbccd");
+        ByteBuffer out = ByteBuffer.allocate(16);
+        long bits = huff.compress("abcdabcd", out);
+        assertEquals(huff.compress("abcdabcd").length(), bits);
+        assertEquals((bits + 7) / 8, out.position());
+        out.flip();
+        assertEquals("abcdabcd", huff.decompress(out, bits));
+    }
+
+    @Test
+    public void testCompressIntoLittleEndianByteBuffer() {
+        Huffman huff = new Huffman("aaaabbbccd");
+        String input = "abcdabcdaabbccddabcdabcdaabbccdd";
+        for (ByteBuffer out : new ByteBuffer[] {ByteBuffer.allocate(64), ByteBuffer.allocateDirect(64)}) {
+            out.order(ByteOrder.LITTLE_ENDIAN);
+            long bits = huff.compress(input, out);
+            assertTrue(bits > 64);
+            assertEquals(ByteOrder.LITTLE_ENDIAN, out.order());
+            out.flip();
+            assertEquals(input, huff.decompress(out, bits));
+        }
+    }
+
+    @Test
+    public void testPackedCompressionRatio() {
+        Map<Character, Integer> alphabet = new HashMap<>();
+        alphabet.put('a', 4);
+        alphabet.put('b', 3);
+        alphabet.put('c', 2);
+        alphabet.put('d', 1);
+        Huffman huff = new Huffman(alphabet);
+        huff.compressPacked("c");
+        assertEquals((8.0 / 16.0), huff.compressionRatio(), 0.0);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testDecompressPackedNondecodable() {
+        Map<Character, Integer> alphabet = new HashMap<>();
+        alphabet.put('a', 4);
+        alphabet.put('b', 3);
+        alphabet.put('c', 2);
+        alphabet.put('d', 1);
+        Huffman huff = new Huffman(alphabet);
+        huff.decompressPacked(PackedBits.of(new byte[] {(byte) 0x80}, 1));
+    }
+
+    @Test
+    public void testCanonicalKeepsCodeLengths() {
+        Map<Character, Integer> alphabet = new HashMap<>();
+        alphabet.put('a', 5);
+        alphabet.put('b', 9);
+        alphabet.put('c', 12);
+        alphabet.put('d', 13);
+        alphabet.put('e', 16);
+        alphabet.put('f', 45);
+        Huffman huff = new Huffman(alphabet);
+        assertFalse(huff.isCanonical());
+        Huffman canonical = huff.canonical();
+        assertTrue(canonical.isCanonical());
+        assertEquals(huff.expectedEncodingLength(), canonical.expectedEncodingLength(), 1e-12);
+        assertEquals("0", canonical.compress("f"));
+        assertEquals("100", canonical.compress("c"));
+        assertEquals("1110", canonical.compress("a"));
+        assertEquals("1111", canonical.compress("b"));
+    }
+
+    @Test
+    public void testHeaderRoundTrip() {
+        Huffman sender = new Huffman(" abcccdfsdsjkfaknjweoijoiscdefghijklmnopqrstuvwxyz,.")
+                .canonical();
+        Huffman receiver = new Huffman(sender.codeLengthHeader());
+        String input = "this is a sentence.";
+        assertEquals(sender.compress(input), receiver.compress(input));
+        assertEquals(input, receiver.decompressPacked(sender.compressPacked(input)));
+    }
+
+    @Test (expected = IllegalStateException.class)
+    public void testHeaderRequiresCanonical() {
+        Map<Character, Integer> alphabet = new HashMap<>();
+        alphabet.put('a', 5);
+        alphabet.put('b', 9);
+        alphabet.put('c', 12);
+        alphabet.put('d', 13);
+        alphabet.put('e', 16);
+        alphabet.put('f', 45);
+        new Huffman(alphabet).codeLengthHeader();
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testHeaderIncompleteCode() {
+        // 2 symbols, 'a' and 'b', both with length 2
+        new Huffman(new byte[] {2, 'a', 0, 2, 1});
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testHeaderTruncated() {
+        new Huffman(new byte[] {2, 'a', 0});
+    }
+
+    @Test
+    public void testSharedAcrossThreads() throws InterruptedException {
+        Huffman huff = new Huffman("aaaabbbccd");
+        String input = "abcdabcdaa";
+        String expected = huff.compress(input);
+        Thread[] threads = new Thread[8];
+        boolean[] ok = new boolean[threads.length];
+        for (int t = 0; t < threads.length; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                boolean same = true;
+                for (int i = 0; i < 1000; i++) {
+                    same &= expected.equals(huff.compress(input));
+                    same &= input.equals(huff.decompressPacked(huff.compressPacked(input)));
+                }
+                ok[id] = same;
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (boolean same : ok) {
+            assertTrue(same);
+        }
+        CompressionStats stats = huff.statistics();
+        assertEquals(10 * (1 + 2 * 8 * 1000), stats.inputChars());
+        assertEquals(huff.compressionRatio(), stats.compressionRatio(), 0.0);
+    }
+
+    @Test (expected = IllegalStateException.class)
+    public void testEmptyStatistics() {
+        new Huffman("aaaabbbccd").statistics().compressionRatio();
+    }
+
+    @Test
+    public void testDecompressRange() {
+        StringBuilder sb = new StringBuilder();
+        Random random = new Random(21);
+        for (int i = 0; i < 10000; i++) {
+            sb.append("aaaaaaabbbbccd".charAt(random.nextInt(14)));
+        }
+        String input = sb.toString();
+        Huffman huff = new Huffman(input);
+        HuffmanBlocks indexed = huff.compressIndexed(input, 256);
+        assertEquals(40, indexed.blockCount());
+        assertEquals(huff.compressPacked(input).toString(), indexed.bits().toString());
+        for (int trial = 0; trial < 200; trial++) {
+            int from = random.nextInt(input.length() + 1);
+            int to = from + random.nextInt(input.length() - from + 1);
+            assertEquals(input.substring(from, to), huff.decompress(indexed, from, to));
+        }
+        assertEquals(input, huff.decompress(indexed, 0, input.length()));
+        HuffmanBlocks parallel = new ParallelHuffman(huff).compress(input);
+        assertEquals(input.substring(7000, 9000),
+                huff.decompress(parallel, 7000, 9000));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testDecompressRangeOutOfBounds() {
+        Huffman huff = new Huffman("abcab");
+        huff.decompress(huff.compressIndexed("abcab", 2), 3, 6);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testCompressIndexedBadInterval() {
+        new Huffman("abcab").compressIndexed("abc", 0);
+    }
 }
@@ -157,7 +157,7 @@ public class HuffmanVisualizer {
         for (int i = 0; i < seed.length(); i++) {
             char c = seed.charAt(i);
             if (!alreadySeenCharacters.contains(c)) {
-                String encoding = huffman.compress(c + "");
+                String encoding = huffman.codeOf(c);
                 if (encoding == null) {
                     throw new IllegalArgumentException();
                 }
@@ -174,8 +174,6 @@ public class HuffmanVisualizer {
             
             try {
                 populateEncodingToChar(seed);
-                // reset because we needed to call compress
-                huffman = new Huffman(seed);
                 drawHuffmanTree(seed);
                 // set EEL
                 expectedEncodingLength.setText("EEL: " + 
@@ -0,0 +1,135 @@
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.CharBuffer;
+
+/**
+ * A {@link Writer} that Huffman-encodes the characters written to it onto an {@link
+ * OutputStream}, using the codebook of an existing {@link Huffman} instance.
+ * <p>
+ * Output is a sequence of frames, each a 4-byte big-endian bit length followed by that many
+ * packed bits. A frame is emitted whenever the pending bits reach the chunk size, so memory
+ * stays bounded by the chunk size no matter how much is written. Read the frames back with
+ * {@link HuffmanReader}.
+ */
+public class HuffmanWriter extends Writer {
+
+    /**
+     * The default frame payload size in bytes.
+     */
+    public static final int DEFAULT_CHUNK_BYTES = 1 << 16;
+
+    /**
+     * The largest accepted chunk size, which keeps a frame's bit length within an int.
+     */
+    public static final int MAX_CHUNK_BYTES = 1 << 26;
+
+    private static final int SEGMENT_CHARS = 1024;
+
+    private final Huffman huffman;
+    private final DataOutputStream out;
+    private final BitWriter bits;
+    private final long chunkBits;
+    private long pendingChars;
+    private boolean closed;
+
+    /**
+     * Constructs a writer with the default chunk size.
+     *
+     * @param huffman the codebook to encode with
+     * @param out     the stream to write frames to
+     * @throws IllegalArgumentException if huffman or out is null
+     */
+    public HuffmanWriter(Huffman huffman, OutputStream out) {
+        this(huffman, out, DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Constructs a writer.
+     *
+     * @param huffman    the codebook to encode with
+     * @param out        the stream to write frames to
+     * @param chunkBytes the payload size at which a frame is emitted
+     * @throws IllegalArgumentException if huffman or out is null, or chunkBytes is not between 1
+     *                                  and {@link #MAX_CHUNK_BYTES}
+     */
+    public HuffmanWriter(Huffman huffman, OutputStream out, int chunkBytes) {
+        if (huffman == null) {
+            throw new IllegalArgumentException("huffman is null");
+        }
+        if (out == null) {
+            throw new IllegalArgumentException("output stream is null");
+        }
+        Frames.checkChunkBytes(chunkBytes);
+        this.huffman = huffman;
+        this.out = new DataOutputStream(out);
+        this.bits = new BitWriter(chunkBytes + 8 * SEGMENT_CHARS);
+        this.chunkBits = 8L * chunkBytes;
+    }
+
+    /**
+     * Encodes characters. A character outside the codebook's alphabet raises an {@link
+     * IllegalArgumentException}; characters before it in the same call may already have been
+     * encoded.
+     *
+     * @throws IOException if the underlying stream fails or this writer is closed
+     */
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        if (closed) {
+            throw new IOException("writer is closed");
+        }
+        while (len > 0) {
+            int n = Math.min(len, SEGMENT_CHARS);
+            huffman.encode(CharBuffer.wrap(cbuf), off, off + n, bits);
+            pendingChars += n;
+            if (bits.bitLength() >= chunkBits) {
+                emitFrame();
+            }
+            off += n;
+            len -= n;
+        }
+    }
+
+    private void emitFrame() throws IOException {
+        long bitLength = Frames.write(out, bits);
+        if (bitLength > 0) {
+            huffman.record(pendingChars, 8 * PackedBits.byteLength(bitLength));
+            pendingChars = 0;
+        }
+    }
+
+    /**
+     * Emits the pending characters as a frame, then flushes the underlying stream.
+     *
+     * @throws IOException if the underlying stream fails or this writer is closed
+     */
+    @Override
+    public void flush() throws IOException {
+        if (closed) {
+            throw new IOException("writer is closed");
+        }
+        emitFrame();
+        out.flush();
+    }
+
+    /**
+     * Emits the pending characters and closes the underlying stream, which is closed even if
+     * the last frame cannot be written.
+     *
+     * @throws IOException if the underlying stream fails
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            emitFrame();
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,132 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class HuffmanWriterTest {
+
+    private static final String SEED = "the quick brown fox jumps over the lazy dog.\n";
+
+    private static String randomText(int length) {
+        Random random = new Random(7);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(SEED.charAt(random.nextInt(SEED.length())));
+        }
+        return sb.toString();
+    }
+
+    private static String readAll(Reader reader) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buf = new char[333];
+        int n;
+        while ((n = reader.read(buf, 0, buf.length)) != -1) {
+            sb.append(buf, 0, n);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testRoundTripManyFrames() throws IOException {
+        Huffman huff = new Huffman(SEED);
+        String text = randomText(100000);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new HuffmanWriter(huff, bytes, 512)) {
+            writer.write(text.substring(0, 12345));
+            writer.flush();
+            writer.write(text.substring(12345));
+        }
+        Reader reader = new HuffmanReader(huff, new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(text, readAll(reader));
+        assertEquals(-1, reader.read());
+    }
+
+    @Test
+    public void testMatchesPackedEncoding() throws IOException {
+        Huffman huff = new Huffman(SEED);
+        String text = randomText(1000);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new HuffmanWriter(huff, bytes)) {
+            writer.write(text);
+        }
+        PackedBits packed = huff.compressPacked(text);
+        byte[] out = bytes.toByteArray();
+        assertEquals(4 + packed.byteLength(), out.length);
+        assertArrayEquals(packed.toByteArray(), Arrays.copyOfRange(out, 4, out.length));
+    }
+
+    @Test
+    public void testEmptyStream() throws IOException {
+        Huffman huff = new Huffman(SEED);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new HuffmanWriter(huff, bytes).close();
+        assertEquals(0, bytes.size());
+        assertEquals(-1, new HuffmanReader(huff, new ByteArrayInputStream(new byte[0])).read());
+    }
+
+    @Test (expected = IOException.class)
+    public void testTruncatedFrame() throws IOException {
+        Huffman huff = new Huffman(SEED);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (Writer writer = new HuffmanWriter(huff, bytes)) {
+            writer.write(randomText(100));
+        }
+        byte[] out = bytes.toByteArray();
+        readAll(new HuffmanReader(huff,
+                new ByteArrayInputStream(Arrays.copyOf(out, out.length - 2))));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testNotCompressible() throws IOException {
+        Huffman huff = new Huffman(SEED);
+        new HuffmanWriter(huff, new ByteArrayOutputStream()).write("ABC");
+    }
+
+    @Test
+    public void testCompressionRatioCountsFrames() throws IOException {
+        Huffman huff = new Huffman(SEED);
+        String text = randomText(1000);
+        try (Writer writer = new HuffmanWriter(huff, new ByteArrayOutputStream())) {
+            writer.write(text);
+        }
+        double streamed = huff.compressionRatio();
+        Huffman other = new Huffman(SEED);
+        other.compressPacked(text);
+        assertEquals(other.compressionRatio(), streamed, 0.0);
+    }
+
+    @Test
+    public void testCloseClosesFailingStream() throws IOException {
+        boolean[] closed = new boolean[1];
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        Writer writer = new HuffmanWriter(new Huffman(SEED), failing);
+        writer.write(randomText(100));
+        try {
+            writer.close();
+            fail("closed onto a failing stream");
+        } catch (IOException e) {
+            assertTrue(closed[0]);
+        }
+        closed[0] = false;
+        writer.close();
+        assertFalse(closed[0]);
+    }
+}
@@ -0,0 +1,128 @@
+import java.util.Arrays;
+
+/**
+ * An open-addressing hash map from non-negative {@code int} keys to {@code int} values, with
+ * linear probing over two parallel arrays. It is meant for sparse symbol sets such as the
+ * code points of CJK or emoji-heavy text: lookups touch one or two adjacent slots and no
+ * entry is boxed.
+ */
+final class IntIntMap {
+
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+
+    /**
+     * @param expected the number of keys the map should hold without resizing
+     */
+    IntIntMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static int slot(int key, int mask) {
+        // Fibonacci hashing spreads consecutive code points across the table.
+        return (key * 0x9e3779b9 >>> 16 ^ key * 0x9e3779b9) & mask;
+    }
+
+    /**
+     * @param key a non-negative key
+     * @return the key's value, or {@code missing} if the key is absent
+     */
+    int get(int key, int missing) {
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            int k = keys[i];
+            if (k == key) {
+                return values[i];
+            }
+            if (k == EMPTY) {
+                return missing;
+            }
+        }
+    }
+
+    /**
+     * Adds delta to the key's value, inserting the key with value delta if it is absent.
+     *
+     * @param key a non-negative key
+     * @param delta the amount to add
+     */
+    void add(int key, int delta) {
+        int i = find(key);
+        if (keys[i] == key) {
+            values[i] += delta;
+        } else {
+            insert(i, key, delta);
+        }
+    }
+
+    /**
+     * @param key   a non-negative key
+     * @param value the value to associate with the key, replacing any previous one
+     */
+    void put(int key, int value) {
+        int i = find(key);
+        if (keys[i] == key) {
+            values[i] = value;
+        } else {
+            insert(i, key, value);
+        }
+    }
+
+    /**
+     * @return the keys in ascending order
+     */
+    int[] sortedKeys() {
+        int[] sorted = new int[size];
+        int n = 0;
+        for (int k : keys) {
+            if (k != EMPTY) {
+                sorted[n++] = k;
+            }
+        }
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private int find(int key) {
+        int i = slot(key, mask);
+        while (keys[i] != key && keys[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void insert(int i, int key, int value) {
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[oldKeys.length * 2];
+        values = new int[oldKeys.length * 2];
+        Arrays.fill(keys, EMPTY);
+        mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != EMPTY) {
+                int i = find(oldKeys[j]);
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+}
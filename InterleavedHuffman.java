@@ -0,0 +1,205 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes with a {@link Huffman} codebook into several independent bitstreams, dealing
+ * characters out to them round-robin. In one stream, where a code ends is only known once
+ * the code before it has been decoded, so decoding is a chain of dependent table lookups.
+ * With interleaved streams, the decoder has one lookup from each stream in flight per loop
+ * iteration, and the processor can overlap them.
+ * <p>
+ * The encoding of {@code input} with {@code n} streams is
+ * <pre>
+ *     byte  n
+ *     int   input length in chars
+ *     int   byte length of each of streams 0 to n - 2, the jump offsets
+ *     byte  stream 0, ..., stream n - 1, each padded to whole bytes
+ * </pre>
+ * Stream {@code s} holds characters {@code s, s + n, s + 2n, ...}, so its character count
+ * follows from the input length and the last stream's length from the total. Decoding needs
+ * the same codebook, as with {@link Huffman#compressPacked(String)}.
+ */
+public class InterleavedHuffman {
+
+    /**
+     * The default number of streams.
+     */
+    public static final int DEFAULT_STREAMS = 4;
+
+    /**
+     * The largest number of streams, which fits the stream count in one header byte.
+     */
+    public static final int MAX_STREAMS = 255;
+
+    private final Huffman huffman;
+    private final int streams;
+
+    /**
+     * Constructs an interleaved codec with the default number of streams.
+     *
+     * @param huffman the codebook to encode and decode with
+     * @throws IllegalArgumentException if huffman is null
+     */
+    public InterleavedHuffman(Huffman huffman) {
+        this(huffman, DEFAULT_STREAMS);
+    }
+
+    /**
+     * Constructs an interleaved codec.
+     *
+     * @param huffman the codebook to encode and decode with
+     * @param streams the number of streams to encode into, between 1 and {@link #MAX_STREAMS}
+     * @throws IllegalArgumentException if huffman is null or streams is out of range
+     */
+    public InterleavedHuffman(Huffman huffman, int streams) {
+        if (huffman == null) {
+            throw new IllegalArgumentException("huffman is null");
+        }
+        if (streams < 1 || streams > MAX_STREAMS) {
+            throw new IllegalArgumentException("stream count out of range");
+        }
+        this.huffman = huffman;
+        this.streams = streams;
+    }
+
+    /**
+     * @return the number of streams this codec encodes into
+     */
+    public int streams() {
+        return streams;
+    }
+
+    /**
+     * Compresses the input into interleaved streams.
+     *
+     * @param input the characters to compress, can be empty
+     * @return the encoding, a whole number of bytes
+     * @throws IllegalArgumentException if the input is null or contains characters that are not
+     *                                  compressible
+     */
+    public PackedBits compress(CharSequence input) {
+        if (input == null) {
+            throw new IllegalArgumentException("null input");
+        }
+        int length = input.length();
+        long[] codes = huffman.charCodes;
+        byte[] lengths = huffman.charLengths;
+        BitWriter[] writers = new BitWriter[streams];
+        for (int s = 0; s < streams; s++) {
+            writers[s] = new BitWriter(length / (2 * streams));
+        }
+        for (int i = 0; i < length; i++) {
+            char c = input.charAt(i);
+            int n = c < lengths.length ? lengths[c] : 0;
+            if (n == 0) {
+                throw new IllegalArgumentException("Not compressible characters");
+            }
+            writers[i % streams].append(codes[c], n);
+        }
+
+        PackedBits[] encoded = new PackedBits[streams];
+        long payload = 0;
+        for (int s = 0; s < streams; s++) {
+            encoded[s] = writers[s].toPackedBits();
+            payload += encoded[s].byteLength();
+        }
+        long total = 1 + 4 + 4L * (streams - 1) + payload;
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("input is too long");
+        }
+        ByteBuffer out = ByteBuffer.allocate((int) total);
+        out.put((byte) streams).putInt(length);
+        for (int s = 0; s < streams - 1; s++) {
+            out.putInt(encoded[s].byteLength());
+        }
+        for (PackedBits stream : encoded) {
+            out.put(stream.data);
+        }
+        if (length > 0) {
+            huffman.record(length, 8 * payload);
+        }
+        return new PackedBits(out.array(), 8 * total);
+    }
+
+    /**
+     * Decompresses an encoding made by {@link #compress(CharSequence)} with the same codebook
+     * and any number of streams, which the encoding records.
+     *
+     * @param input the encoding
+     * @return the decoded string
+     * @throws IllegalArgumentException if the input is null, its header is malformed, or a
+     *                                  stream does not decode to exactly its characters
+     */
+    public String decompress(PackedBits input) {
+        if (input == null) {
+            throw new IllegalArgumentException("input is null");
+        }
+        ByteBuffer in = ByteBuffer.wrap(input.data, 0, (int) (input.bitLength >>> 3));
+        if (in.remaining() < 5) {
+            throw new IllegalArgumentException("header is truncated");
+        }
+        int n = in.get() & 0xFF;
+        int length = in.getInt();
+        if (n == 0 || length < 0 || in.remaining() < 4L * (n - 1)) {
+            throw new IllegalArgumentException("header is malformed");
+        }
+        int[] sizes = new int[n];
+        long start = in.position() + 4L * (n - 1);
+        long used = 0;
+        for (int s = 0; s < n - 1; s++) {
+            sizes[s] = in.getInt();
+            if (sizes[s] < 0) {
+                throw new IllegalArgumentException("header is malformed");
+            }
+            used += sizes[s];
+        }
+        if (start + used > in.limit()) {
+            throw new IllegalArgumentException("stream offsets out of bounds");
+        }
+        sizes[n - 1] = (int) (in.limit() - start - used);
+        // Every code is at least one bit, which bounds the length before anything is allocated.
+        if (length > 8 * (in.limit() - start)) {
+            throw new IllegalArgumentException("char count exceeds the encoded bits");
+        }
+        BitReader[] readers = new BitReader[n];
+        int offset = (int) start;
+        for (int s = 0; s < n; s++) {
+            readers[s] = new BitReader(ByteBuffer.wrap(input.data, offset, sizes[s]),
+                    8L * sizes[s]);
+            offset += sizes[s];
+        }
+
+        char[] out = new char[length];
+        int rounds = length / n;
+        int i = 0;
+        TableDecoder decoder = huffman.decoder;
+        if (n == 4) {
+            // The common case, unrolled so the four lookups are visibly independent.
+            BitReader r0 = readers[0];
+            BitReader r1 = readers[1];
+            BitReader r2 = readers[2];
+            BitReader r3 = readers[3];
+            for (int round = 0; round < rounds; round++, i += 4) {
+                out[i] = (char) decoder.decode(r0);
+                out[i + 1] = (char) decoder.decode(r1);
+                out[i + 2] = (char) decoder.decode(r2);
+                out[i + 3] = (char) decoder.decode(r3);
+            }
+        } else {
+            for (int round = 0; round < rounds; round++) {
+                for (int s = 0; s < n; s++) {
+                    out[i++] = (char) decoder.decode(readers[s]);
+                }
+            }
+        }
+        for (int s = 0; i < length; s++) {
+            out[i++] = (char) decoder.decode(readers[s]);
+        }
+
+        for (int s = 0; s < n; s++) {
+            if (readers[s].remaining() >= 8) {
+                throw new IllegalArgumentException("stream " + s + " has trailing bytes");
+            }
+        }
+        return new String(out);
+    }
+}
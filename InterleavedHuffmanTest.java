@@ -0,0 +1,110 @@
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class InterleavedHuffmanTest {
+
+    private static final String SEED = "aaaaaaaaaaaaaaabbbbbbbccccccdddddddddeeeee";
+
+    @Test
+    public void testRoundTripEveryStreamCount() {
+        Huffman huff = new Huffman(SEED);
+        Random random = new Random(25);
+        for (int streams = 1; streams <= 9; streams++) {
+            InterleavedHuffman codec = new InterleavedHuffman(huff, streams);
+            for (int length : new int[] {0, 1, streams - 1, streams, 1000, 1003}) {
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < length; i++) {
+                    sb.append(SEED.charAt(random.nextInt(SEED.length())));
+                }
+                String input = sb.toString();
+                assertEquals(input, codec.decompress(codec.compress(input)));
+            }
+        }
+    }
+
+    @Test
+    public void testHeaderLayout() {
+        Huffman huff = new Huffman(SEED);
+        InterleavedHuffman codec = new InterleavedHuffman(huff);
+        assertEquals(InterleavedHuffman.DEFAULT_STREAMS, codec.streams());
+        String input = SEED + SEED;
+        PackedBits bits = codec.compress(input);
+        byte[] data = bits.toByteArray();
+        assertEquals(4, data[0]);
+        assertEquals(input.length(), ByteBuffer.wrap(data, 1, 4).getInt());
+
+        // Each stream costs the same bits as its characters in a single stream.
+        long payload = 0;
+        for (int s = 0; s < 4; s++) {
+            StringBuilder stream = new StringBuilder();
+            for (int i = s; i < input.length(); i += 4) {
+                stream.append(input.charAt(i));
+            }
+            payload += huff.compressPacked(stream.toString()).byteLength();
+        }
+        assertEquals(1 + 4 + 3 * 4 + payload, bits.byteLength());
+    }
+
+    @Test
+    public void testRecordsPayloadBits() {
+        Huffman huff = new Huffman(SEED);
+        InterleavedHuffman codec = new InterleavedHuffman(huff);
+        PackedBits bits = codec.compress(SEED);
+        long payload = bits.byteLength() - (1 + 4 + 3 * 4);
+        assertEquals(8.0 * payload / (16.0 * SEED.length()), huff.compressionRatio(), 0.0);
+    }
+
+    @Test (expected = IllegalStateException.class)
+    public void testEmptyRecordsNothing() {
+        Huffman huff = new Huffman(SEED);
+        new InterleavedHuffman(huff).compress("");
+        huff.compressionRatio();
+    }
+
+    @Test
+    public void testDecodesAnyStreamCount() {
+        Huffman huff = new Huffman(SEED);
+        PackedBits bits = new InterleavedHuffman(huff, 7).compress(SEED);
+        assertEquals(SEED, new InterleavedHuffman(huff, 2).decompress(bits));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testTruncated() {
+        Huffman huff = new Huffman(SEED);
+        InterleavedHuffman codec = new InterleavedHuffman(huff);
+        byte[] data = codec.compress(SEED).toByteArray();
+        codec.decompress(PackedBits.of(data, 8L * (data.length - 3)));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testBadJumpOffset() {
+        Huffman huff = new Huffman(SEED);
+        InterleavedHuffman codec = new InterleavedHuffman(huff);
+        byte[] data = codec.compress(SEED).toByteArray();
+        data[5] = 0x7f;
+        codec.decompress(PackedBits.of(data, 8L * data.length));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testBadCharCount() {
+        Huffman huff = new Huffman(SEED);
+        InterleavedHuffman codec = new InterleavedHuffman(huff, 1);
+        byte[] data = ByteBuffer.allocate(9).put((byte) 1).putInt(Integer.MAX_VALUE - 16)
+                .putInt(0).array();
+        codec.decompress(PackedBits.of(data, 8L * data.length));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testNotCompressible() {
+        new InterleavedHuffman(new Huffman(SEED)).compress("abz");
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testStreamCountOutOfRange() {
+        new InterleavedHuffman(new Huffman(SEED), 0);
+    }
+}
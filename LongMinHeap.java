@@ -0,0 +1,249 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap of {@code int} values with {@code long} keys, backed by parallel primitive
+ * arrays. It offers the operations of {@link BinaryMinHeap} without boxing keys, wrapping
+ * elements in {@link BinaryMinHeap.Entry} objects, or hashing values: values are integers in
+ * {@code [0, capacity)}, so their heap positions are kept in an array indexed by value.
+ * <p>
+ * No operation allocates except {@link #values()}. Keys do not have to be distinct, and ties
+ * are broken exactly as {@link BinaryMinHeapImpl} breaks them.
+ */
+public class LongMinHeap implements MinQueue {
+
+    // 1-indexed like BinaryMinHeapImpl; slot 0 is unused.
+    final long[] keys;
+    final int[] values;
+    // positions[value] is the value's slot, or 0 if it is not in the heap.
+    final int[] positions;
+    private int size;
+
+    /**
+     * Constructs an empty heap.
+     *
+     * @param capacity one more than the largest value the heap may hold
+     * @throws IllegalArgumentException if capacity is negative
+     */
+    public LongMinHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity is negative");
+        }
+        this.keys = new long[capacity + 1];
+        this.values = new int[capacity + 1];
+        this.positions = new int[capacity];
+    }
+
+    /**
+     * Runtime: O(1)
+     *
+     * @return the number of elements in the min-heap
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Runtime: O(1)
+     *
+     * @return true if the heap is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Runtime: O(1)
+     *
+     * @param value the value to check
+     * @return true if the min-heap contains the specified value
+     */
+    public boolean containsValue(int value) {
+        return value >= 0 && value < positions.length && positions[value] != 0;
+    }
+
+    /**
+     * Runtime: O(log n)
+     *
+     * @param key   the priority key to associate with the value
+     * @param value the value to insert into the heap
+     * @throws IllegalArgumentException if value is outside {@code [0, capacity)} or is already
+     *                                  in the min-heap
+     */
+    @Override
+    public void add(long key, int value) {
+        if (value < 0 || value >= positions.length) {
+            throw new IllegalArgumentException("value is out of range");
+        }
+        if (positions[value] != 0) {
+            throw new IllegalArgumentException("value is already in the heap");
+        }
+        size++;
+        keys[size] = key;
+        values[size] = value;
+        positions[value] = size;
+        siftUp(size);
+    }
+
+    /**
+     * Inserts a batch of values with bottom-up build-heap, sifting each internal node down
+     * once. Either all values are added or, if any is rejected, none is.
+     * <p>
+     * Runtime: O(n + m) for m values
+     *
+     * @param keys   the priority key of each value
+     * @param values the values to insert
+     * @throws IllegalArgumentException if either array is null, their lengths differ, or any
+     *                                  value is outside {@code [0, capacity)}, already in the
+     *                                  min-heap, or repeated
+     */
+    public void addAll(long[] keys, int[] values) {
+        if (keys == null || values == null) {
+            throw new IllegalArgumentException("keys or values is null");
+        }
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys and values differ in length");
+        }
+        // Mark each value with a slot past the end while validating, so repeats are caught;
+        // the marks are undone if the batch is rejected.
+        for (int i = 0; i < values.length; i++) {
+            int value = values[i];
+            if (value < 0 || value >= positions.length || positions[value] != 0) {
+                for (int j = 0; j < i; j++) {
+                    positions[values[j]] = 0;
+                }
+                throw new IllegalArgumentException(value < 0 || value >= positions.length
+                        ? "value is out of range" : "value is already in the heap");
+            }
+            positions[value] = size + 1 + i;
+        }
+        System.arraycopy(keys, 0, this.keys, size + 1, keys.length);
+        System.arraycopy(values, 0, this.values, size + 1, values.length);
+        size += values.length;
+        for (int i = size / 2; i >= 1; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Updates the key of a particular value in the min-heap to a smaller key.
+     * <p>
+     * Runtime: O(log n)
+     *
+     * @param value  the value whose associated key to update
+     * @param newKey the key to update value with
+     * @throws NoSuchElementException   if value is not in the heap
+     * @throws IllegalArgumentException if newKey > key(value)
+     */
+    public void decreaseKey(int value, long newKey) {
+        if (!containsValue(value)) {
+            throw new NoSuchElementException("value not in heap");
+        }
+        int index = positions[value];
+        if (newKey > keys[index]) {
+            throw new IllegalArgumentException("newKey is greater than old key");
+        }
+        keys[index] = newKey;
+        siftUp(index);
+    }
+
+    /**
+     * Runtime: O(1)
+     *
+     * @return the smallest key in the min-heap
+     * @throws NoSuchElementException if the heap is empty
+     */
+    @Override
+    public long peekKey() {
+        checkNotEmpty();
+        return keys[1];
+    }
+
+    /**
+     * Runtime: O(1)
+     *
+     * @return the value with the smallest key in the min-heap
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public int peekValue() {
+        checkNotEmpty();
+        return values[1];
+    }
+
+    /**
+     * Removes the value with the smallest key in the min-heap. Read its key with {@link
+     * #peekKey()} first if it is needed.
+     * <p>
+     * Runtime: O(log n)
+     *
+     * @return the value with the smallest key
+     * @throws NoSuchElementException if the min-heap is empty
+     */
+    @Override
+    public int extractMin() {
+        checkNotEmpty();
+        int min = values[1];
+        positions[min] = 0;
+        int last = size--;
+        if (size > 0) {
+            move(last, 1);
+            siftDown(1);
+        }
+        return min;
+    }
+
+    /**
+     * Runtime: O(n)
+     *
+     * @return the values in the heap, in no particular order
+     */
+    public int[] values() {
+        return Arrays.copyOfRange(values, 1, size + 1);
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new NoSuchElementException("heap is empty");
+        }
+    }
+
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        values[to] = values[from];
+        positions[values[to]] = to;
+    }
+
+    private void siftUp(int index) {
+        long key = keys[index];
+        int value = values[index];
+        while (index > 1 && keys[index >>> 1] > key) {
+            move(index >>> 1, index);
+            index >>>= 1;
+        }
+        keys[index] = key;
+        values[index] = value;
+        positions[value] = index;
+    }
+
+    private void siftDown(int index) {
+        long key = keys[index];
+        int value = values[index];
+        while (true) {
+            int l = 2 * index;
+            int r = l + 1;
+            int smallest = l <= size && keys[l] < key ? l : index;
+            if (r <= size && keys[r] < (smallest == index ? key : keys[smallest])) {
+                smallest = r;
+            }
+            if (smallest == index) {
+                break;
+            }
+            move(smallest, index);
+            index = smallest;
+        }
+        keys[index] = key;
+        values[index] = value;
+        positions[value] = index;
+    }
+}
@@ -0,0 +1,186 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class LongMinHeapTest {
+
+    @Test
+    public void testIsEmpty() {
+        LongMinHeap minHeap = new LongMinHeap(4);
+        assertTrue(minHeap.isEmpty());
+        minHeap.add(3, 0);
+        assertFalse(minHeap.isEmpty());
+        assertEquals(1, minHeap.size());
+    }
+
+    @Test
+    public void testContainsValue() {
+        LongMinHeap minHeap = new LongMinHeap(4);
+        minHeap.add(1, 2);
+        assertTrue(minHeap.containsValue(2));
+        assertFalse(minHeap.containsValue(1));
+        assertFalse(minHeap.containsValue(-1));
+        assertFalse(minHeap.containsValue(4));
+        minHeap.extractMin();
+        assertFalse(minHeap.containsValue(2));
+    }
+
+    @Test
+    public void testExtractInOrder() {
+        LongMinHeap minHeap = new LongMinHeap(4);
+        minHeap.add(2, 1);
+        minHeap.add(4, 3);
+        minHeap.add(1, 0);
+        minHeap.add(3, 2);
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i + 1, minHeap.peekKey());
+            assertEquals(i, minHeap.peekValue());
+            assertEquals(i, minHeap.extractMin());
+        }
+        assertTrue(minHeap.isEmpty());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testAddExistedValue() {
+        LongMinHeap minHeap = new LongMinHeap(4);
+        minHeap.add(1, 1);
+        minHeap.add(2, 1);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testAddValueOutOfRange() {
+        new LongMinHeap(4).add(1, 4);
+    }
+
+    @Test (expected = NoSuchElementException.class)
+    public void testDecreaseValueNotExist() {
+        new LongMinHeap(4).decreaseKey(1, 0);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testDecreaseBiggerNewKey() {
+        LongMinHeap minHeap = new LongMinHeap(4);
+        minHeap.add(1, 1);
+        minHeap.decreaseKey(1, 2);
+    }
+
+    @Test (expected = NoSuchElementException.class)
+    public void testExtractEmpty() {
+        new LongMinHeap(4).extractMin();
+    }
+
+    @Test
+    public void testDecreaseKey() {
+        LongMinHeap minHeap = new LongMinHeap(4);
+        minHeap.add(1, 0);
+        minHeap.add(2, 1);
+        minHeap.add(3, 2);
+        minHeap.decreaseKey(2, 0);
+        assertEquals(2, minHeap.extractMin());
+        assertEquals(0, minHeap.extractMin());
+    }
+
+    @Test
+    public void testValues() {
+        LongMinHeap minHeap = new LongMinHeap(8);
+        minHeap.add(5, 7);
+        minHeap.add(1, 3);
+        minHeap.add(3, 0);
+        int[] values = minHeap.values();
+        Arrays.sort(values);
+        assertArrayEquals(new int[] {0, 3, 7}, values);
+    }
+
+    @Test
+    public void testMatchesBinaryMinHeapImpl() {
+        Random random = new Random(5);
+        LongMinHeap minHeap = new LongMinHeap(200);
+        BinaryMinHeapImpl<Integer, Integer> reference = new BinaryMinHeapImpl<>();
+        int next = 0;
+        for (int step = 0; step < 2000; step++) {
+            int op = random.nextInt(3);
+            if (op == 0 && next < 200) {
+                int key = random.nextInt(10);
+                minHeap.add(key, next);
+                reference.add(key, next);
+                next++;
+            } else if (op == 1 && !reference.isEmpty()) {
+                assertEquals((long) reference.peek().key, minHeap.peekKey());
+                assertEquals((int) reference.extractMin().value, minHeap.extractMin());
+            } else if (!reference.isEmpty()) {
+                int value = minHeap.values()[random.nextInt(minHeap.size())];
+                minHeap.decreaseKey(value, -step);
+                reference.decreaseKey(value, -step);
+            }
+            assertEquals(reference.size(), minHeap.size());
+        }
+    }
+
+    @Test
+    public void testLongKeys() {
+        LongMinHeap minHeap = new LongMinHeap(4);
+        minHeap.add(1L << 40, 0);
+        minHeap.add(1L << 33, 1);
+        minHeap.add(Long.MAX_VALUE, 2);
+        minHeap.add(Long.MIN_VALUE, 3);
+        assertEquals(Long.MIN_VALUE, minHeap.peekKey());
+        assertEquals(3, minHeap.extractMin());
+        minHeap.decreaseKey(2, 1L << 32);
+        assertEquals(2, minHeap.extractMin());
+        assertEquals(1, minHeap.extractMin());
+        assertEquals(0, minHeap.extractMin());
+    }
+
+    @Test
+    public void testAsMinQueue() {
+        MinQueue queue = new LongMinHeap(3);
+        queue.add(7L << 35, 0);
+        queue.add(5L << 35, 1);
+        queue.add(6L << 35, 2);
+        assertEquals(3, queue.size());
+        assertEquals(5L << 35, queue.peekKey());
+        assertEquals(1, queue.extractMin());
+        assertEquals(2, queue.extractMin());
+        assertEquals(0, queue.extractMin());
+        assertEquals(0, queue.size());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testAddAllMismatchedLengths() {
+        new LongMinHeap(4).addAll(new long[] {1, 2}, new int[] {0});
+    }
+
+    @Test
+    public void testAddAll() {
+        LongMinHeap minHeap = new LongMinHeap(6);
+        minHeap.add(4, 3);
+        minHeap.addAll(new long[] {5, 2, 3, 1, 6}, new int[] {4, 1, 2, 0, 5});
+        assertEquals(6, minHeap.size());
+        for (int i = 1; i <= minHeap.size(); i++) {
+            assertEquals(i, minHeap.positions[minHeap.values[i]]);
+        }
+        for (int i = 0; i < 6; i++) {
+            assertEquals(i, minHeap.extractMin());
+        }
+    }
+
+    @Test
+    public void testAddAllRejectsWholeBatch() {
+        LongMinHeap minHeap = new LongMinHeap(4);
+        minHeap.add(1, 0);
+        try {
+            minHeap.addAll(new long[] {2, 3, 4}, new int[] {1, 2, 1});
+            fail();
+        } catch (IllegalArgumentException expected) {
+            assertEquals(1, minHeap.size());
+            assertFalse(minHeap.containsValue(1));
+            assertFalse(minHeap.containsValue(2));
+        }
+        minHeap.addAll(new long[] {2, 3}, new int[] {1, 2});
+        assertEquals(3, minHeap.size());
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * A min-priority queue of {@code int} values with {@code long} keys, narrowed to the
+ * operations Huffman tree construction needs.
+ */
+interface MinQueue {
+
+    /**
+     * @return the number of elements in the queue
+     */
+    int size();
+
+    /**
+     * @param key   the priority key to associate with the value
+     * @param value the value to insert
+     */
+    void add(long key, int value);
+
+    /**
+     * @return the smallest key in the queue
+     * @throws java.util.NoSuchElementException if the queue is empty
+     */
+    long peekKey();
+
+    /**
+     * Removes the value with the smallest key.
+     *
+     * @return the value with the smallest key
+     * @throws java.util.NoSuchElementException if the queue is empty
+     */
+    int extractMin();
+}
@@ -0,0 +1,98 @@
+import java.util.Arrays;
+
+/**
+ * Computes optimal length-limited prefix code lengths with the package-merge algorithm.
+ * <p>
+ * Think of each symbol as a coin of its frequency, available in every denomination from
+ * {@code 2^-1} down to {@code 2^-maxLength}. Starting from the smallest denomination, coins
+ * are paired into packages, and the packages are merged with the next denomination's coins in
+ * order of weight. Of the final list, the cheapest {@code 2n - 2} items are bought, and a
+ * symbol's code length is the number of its coins bought, directly or inside packages.
+ * <p>
+ * Runtime: O(n log n + n * maxLength); memory: O(n * maxLength) bytes, one boolean per
+ * list entry.
+ */
+final class PackageMerge {
+
+    private PackageMerge() {
+    }
+
+    /**
+     * @param freqs     the positive frequency of each symbol, at least 2 of them
+     * @param maxLength the longest code allowed, between 1 and {@link Codebook#MAX_CODE_LENGTH}
+     * @return the code length of each symbol, in the same order as freqs, minimizing the total
+     *         encoded length subject to no length exceeding maxLength
+     * @throws IllegalArgumentException if maxLength is out of range or too small for the number
+     *                                  of symbols
+     */
+    static byte[] codeLengths(int[] freqs, int maxLength) {
+        int n = freqs.length;
+        if (maxLength < 1 || maxLength > Codebook.MAX_CODE_LENGTH) {
+            throw new IllegalArgumentException("max code length out of range");
+        }
+        if (maxLength < 63 && n > 1L << maxLength) {
+            throw new IllegalArgumentException("too many characters for max code length");
+        }
+
+        // Sort symbols by frequency; the index breaks ties so the result is deterministic.
+        long[] keyed = new long[n];
+        for (int i = 0; i < n; i++) {
+            keyed[i] = ((long) freqs[i] << 32) | i;
+        }
+        Arrays.sort(keyed);
+        long[] leaves = new long[n];
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            leaves[i] = keyed[i] >>> 32;
+            order[i] = (int) keyed[i];
+        }
+
+        // isLeaf[level][k] records whether item k of that level's merged list is a coin or a
+        // package of two items from the level below. Level 0 is the smallest denomination.
+        boolean[][] isLeaf = new boolean[maxLength][];
+        long[] list = leaves.clone();
+        isLeaf[0] = new boolean[n];
+        Arrays.fill(isLeaf[0], true);
+        for (int level = 1; level < maxLength; level++) {
+            int packages = list.length / 2;
+            long[] merged = new long[n + packages];
+            boolean[] leafFlags = new boolean[merged.length];
+            int leaf = 0;
+            int pkg = 0;
+            for (int k = 0; k < merged.length; k++) {
+                long packageWeight = pkg < packages ? list[2 * pkg] + list[2 * pkg + 1] : 0;
+                if (pkg >= packages || (leaf < n && leaves[leaf] <= packageWeight)) {
+                    merged[k] = leaves[leaf++];
+                    leafFlags[k] = true;
+                } else {
+                    merged[k] = packageWeight;
+                    pkg++;
+                }
+            }
+            list = merged;
+            isLeaf[level] = leafFlags;
+        }
+
+        // Buy the cheapest 2n - 2 items of the top list, then unpack level by level.
+        int[] counts = new int[n];
+        int take = 2 * n - 2;
+        for (int level = maxLength - 1; level >= 0 && take > 0; level--) {
+            int leaf = 0;
+            int pkg = 0;
+            for (int k = 0; k < take; k++) {
+                if (isLeaf[level][k]) {
+                    counts[leaf++]++;
+                } else {
+                    pkg++;
+                }
+            }
+            take = 2 * pkg;
+        }
+
+        byte[] lengths = new byte[n];
+        for (int i = 0; i < n; i++) {
+            lengths[order[i]] = (byte) counts[i];
+        }
+        return lengths;
+    }
+}
@@ -0,0 +1,109 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class PackageMergeTest {
+
+    private static int[] fibonacci(int n) {
+        int[] freqs = new int[n];
+        freqs[0] = 1;
+        freqs[1] = 1;
+        for (int i = 2; i < n; i++) {
+            freqs[i] = freqs[i - 1] + freqs[i - 2];
+        }
+        return freqs;
+    }
+
+    private static long cost(int[] freqs, byte[] lengths) {
+        long cost = 0;
+        for (int i = 0; i < freqs.length; i++) {
+            cost += (long) freqs[i] * lengths[i];
+        }
+        return cost;
+    }
+
+    private static void assertComplete(byte[] lengths, int maxLength) {
+        double kraft = 0;
+        for (byte length : lengths) {
+            assertTrue(length >= 1 && length <= maxLength);
+            kraft += Math.pow(2, -length);
+        }
+        assertEquals(1.0, kraft, 1e-12);
+    }
+
+    @Test
+    public void testUnconstrainedMatchesHuffman() {
+        int[] freqs = {5, 9, 12, 13, 16, 45};
+        byte[] lengths = PackageMerge.codeLengths(freqs, 64);
+        assertComplete(lengths, 64);
+        assertEquals(224, cost(freqs, lengths));
+    }
+
+    @Test
+    public void testFibonacciLimited() {
+        int[] freqs = fibonacci(30);
+        byte[] unlimited = PackageMerge.codeLengths(freqs, 64);
+        assertEquals(29, Math.max(unlimited[0], unlimited[1]));
+        for (int limit : new int[] {5, 8, 11, 15, 24}) {
+            byte[] lengths = PackageMerge.codeLengths(freqs, limit);
+            assertComplete(lengths, limit);
+            assertTrue(cost(freqs, lengths) >= cost(freqs, unlimited));
+        }
+    }
+
+    @Test
+    public void testTightLimitIsFlat() {
+        byte[] lengths = PackageMerge.codeLengths(new int[] {1, 1, 1, 100, 1000, 1, 1, 1}, 3);
+        for (byte length : lengths) {
+            assertEquals(3, length);
+        }
+    }
+
+    @Test
+    public void testRandomAgainstHuffman() {
+        Random random = new Random(9);
+        for (int trial = 0; trial < 20; trial++) {
+            Map<Character, Integer> alphabet = new HashMap<>();
+            int n = 2 + random.nextInt(200);
+            int[] freqs = new int[n];
+            for (int i = 0; i < n; i++) {
+                freqs[i] = 1 + random.nextInt(1000);
+                alphabet.put((char) ('!' + i), freqs[i]);
+            }
+            Huffman huff = new Huffman(alphabet);
+            byte[] lengths = PackageMerge.codeLengths(freqs, 64);
+            assertComplete(lengths, 64);
+            assertEquals(huff.expectedEncodingLength() * huff.sum, cost(freqs, lengths), 1e-6);
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testLimitTooSmall() {
+        PackageMerge.codeLengths(new int[] {1, 2, 3, 4, 5}, 2);
+    }
+
+    @Test
+    public void testHuffmanMaxCodeLength() {
+        Map<Character, Integer> alphabet = new HashMap<>();
+        int[] freqs = fibonacci(30);
+        StringBuilder all = new StringBuilder();
+        for (int i = 0; i < freqs.length; i++) {
+            alphabet.put((char) ('A' + i), freqs[i]);
+            all.append((char) ('A' + i));
+        }
+        Huffman unlimited = new Huffman(alphabet);
+        Huffman limited = new Huffman(alphabet, 11);
+        assertEquals(29, unlimited.maxCodeLength());
+        assertEquals(11, limited.maxCodeLength());
+        assertTrue(limited.isCanonical());
+        assertTrue(limited.expectedEncodingLength() > unlimited.expectedEncodingLength());
+        String input = all.toString();
+        assertEquals(input, limited.decompress(limited.compress(input)));
+        Huffman seeded = new Huffman("aaaaaaaabbbbccd", 2);
+        assertEquals(2.0, seeded.expectedEncodingLength(), 0.0);
+    }
+}
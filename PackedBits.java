@@ -0,0 +1,110 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * An immutable bit string packed eight bits to a byte, most significant bit first. The last
+ * byte is padded with zero bits, so the explicit {@link #bitLength()} is what tells a reader
+ * where the data really ends.
+ */
+public final class PackedBits {
+
+    final byte[] data;
+    final long bitLength;
+
+    PackedBits(byte[] data, long bitLength) {
+        this.data = data;
+        this.bitLength = bitLength;
+    }
+
+    /**
+     * Wraps a copy of the given bytes as a bit string of the given length.
+     *
+     * @param data      the packed bits, most significant bit first
+     * @param bitLength the number of meaningful bits in {@code data}
+     * @return the packed bit string
+     * @throws IllegalArgumentException if data is null, or bitLength is negative or does not fit
+     *                                  in data
+     */
+    public static PackedBits of(byte[] data, long bitLength) {
+        if (data == null) {
+            throw new IllegalArgumentException("data is null");
+        }
+        if (bitLength < 0 || byteLength(bitLength) > data.length) {
+            throw new IllegalArgumentException("bit length does not fit in data");
+        }
+        byte[] copy = new byte[(int) byteLength(bitLength)];
+        System.arraycopy(data, 0, copy, 0, copy.length);
+        return new PackedBits(copy, bitLength);
+    }
+
+    static long byteLength(long bitLength) {
+        return (bitLength + 7) >>> 3;
+    }
+
+    /**
+     * @return the number of meaningful bits
+     */
+    public long bitLength() {
+        return bitLength;
+    }
+
+    /**
+     * @return the number of bytes needed to hold the bits, including the padded last byte
+     */
+    public int byteLength() {
+        return data.length;
+    }
+
+    /**
+     * @return a copy of the packed bytes
+     */
+    public byte[] toByteArray() {
+        return data.clone();
+    }
+
+    /**
+     * @return a read-only big-endian view of the packed bytes
+     */
+    public ByteBuffer toByteBuffer() {
+        return ByteBuffer.wrap(data).asReadOnlyBuffer();
+    }
+
+    /**
+     * Packs the bits into 64-bit words, most significant bit first. The last word is padded
+     * with zero bits.
+     *
+     * @return the bits as an array of {@code ceil(bitLength / 64)} words
+     */
+    public long[] toLongArray() {
+        long[] words = new long[(int) ((bitLength + 63) >>> 6)];
+        ByteBuffer in = ByteBuffer.wrap(data).order(ByteOrder.BIG_ENDIAN);
+        for (int i = 0; i < words.length; i++) {
+            if (in.remaining() >= 8) {
+                words[i] = in.getLong();
+            } else {
+                long word = 0;
+                int shift = 56;
+                while (in.hasRemaining()) {
+                    word |= (in.get() & 0xFFL) << shift;
+                    shift -= 8;
+                }
+                words[i] = word;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * @return the bits as a string of ones and zeroes, in the format of
+     *         {@link Huffman#compress(String)}
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder((int) Math.min(bitLength, Integer.MAX_VALUE));
+        for (long i = 0; i < bitLength; i++) {
+            int b = data[(int) (i >>> 3)] >>> (7 - (int) (i & 7));
+            sb.append((b & 1) == 0 ? '0' : '1');
+        }
+        return sb.toString();
+    }
+}
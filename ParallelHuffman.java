@@ -0,0 +1,178 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Compresses and decompresses large inputs on a {@link ForkJoinPool} by splitting them into
+ * fixed-size blocks that are Huffman-encoded independently with a shared {@link Huffman}
+ * codebook. Block encodings are stitched back into one bit string and their bit offsets are
+ * kept in the resulting {@link HuffmanBlocks}, so decompression can fan out again.
+ */
+public class ParallelHuffman {
+
+    /**
+     * The default number of characters per block.
+     */
+    public static final int DEFAULT_BLOCK_CHARS = 1 << 16;
+
+    private final Huffman huffman;
+    private final ForkJoinPool pool;
+    private final int blockChars;
+
+    /**
+     * Constructs a parallel codec on the common pool with the default block size.
+     *
+     * @param huffman the codebook to encode and decode with
+     * @throws IllegalArgumentException if huffman is null
+     */
+    public ParallelHuffman(Huffman huffman) {
+        this(huffman, ForkJoinPool.commonPool(), DEFAULT_BLOCK_CHARS);
+    }
+
+    /**
+     * Constructs a parallel codec.
+     *
+     * @param huffman    the codebook to encode and decode with
+     * @param pool       the pool to run blocks on
+     * @param blockChars the number of characters per block
+     * @throws IllegalArgumentException if huffman or pool is null, or blockChars is not positive
+     */
+    public ParallelHuffman(Huffman huffman, ForkJoinPool pool, int blockChars) {
+        if (huffman == null) {
+            throw new IllegalArgumentException("huffman is null");
+        }
+        if (pool == null) {
+            throw new IllegalArgumentException("pool is null");
+        }
+        if (blockChars <= 0) {
+            throw new IllegalArgumentException("block size is not positive");
+        }
+        this.huffman = huffman;
+        this.pool = pool;
+        this.blockChars = blockChars;
+    }
+
+    /**
+     * Compresses the input, encoding its blocks in parallel.
+     *
+     * @param input the characters to compress, can be empty
+     * @return the stitched encoding and the bit offset of every block
+     * @throws IllegalArgumentException if the input is null or contains characters that are not
+     *                                  compressible
+     */
+    public HuffmanBlocks compress(CharSequence input) {
+        if (input == null) {
+            throw new IllegalArgumentException("null input");
+        }
+        int length = input.length();
+        int blocks = (int) (((long) length + blockChars - 1) / blockChars);
+        PackedBits[] encoded = new PackedBits[blocks];
+        pool.invoke(new EncodeBlocks(input, encoded, 0, blocks));
+
+        // Stitching is a word-at-a-time copy, cheap next to the encoding itself.
+        long[] bitOffsets = new long[blocks + 1];
+        for (int i = 0; i < blocks; i++) {
+            bitOffsets[i + 1] = bitOffsets[i] + encoded[i].bitLength;
+        }
+        BitWriter writer = new BitWriter((int) Math.min(Integer.MAX_VALUE - 8,
+                PackedBits.byteLength(bitOffsets[blocks])));
+        for (PackedBits block : encoded) {
+            writer.write(block);
+        }
+        PackedBits bits = writer.toPackedBits();
+        huffman.record(length, 8L * bits.byteLength());
+        return new HuffmanBlocks(bits, bitOffsets, blockChars, length);
+    }
+
+    /**
+     * Decompresses blocks produced by {@link #compress(CharSequence)} with the same codebook,
+     * decoding them in parallel.
+     *
+     * @param blocks the blocks to decompress
+     * @return the decoded string
+     * @throws IllegalArgumentException if blocks is null or a block is not decodable
+     */
+    public String decompress(HuffmanBlocks blocks) {
+        if (blocks == null) {
+            throw new IllegalArgumentException("input is null");
+        }
+        char[] out = new char[blocks.length];
+        pool.invoke(new DecodeBlocks(blocks, out, 0, blocks.blockCount()));
+        return new String(out);
+    }
+
+    /**
+     * Decodes one block into {@code out}.
+     *
+     * @throws IllegalArgumentException if the block's bits do not decode to exactly its
+     *                                  characters
+     */
+    void decodeBlock(HuffmanBlocks blocks, int block, char[] out) {
+        BitReader reader = new BitReader(blocks.bits, blocks.bitOffsets[block],
+                blocks.bitOffsets[block + 1]);
+        int end = blocks.blockEnd(block);
+        for (int i = blocks.blockStart(block); i < end; i++) {
+            out[i] = (char) huffman.decoder.decode(reader);
+        }
+        if (reader.remaining() != 0) {
+            throw new IllegalArgumentException("block " + block + " has trailing bits");
+        }
+    }
+
+    private class EncodeBlocks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CharSequence input;
+        private final PackedBits[] encoded;
+        private final int from;
+        private final int to;
+
+        EncodeBlocks(CharSequence input, PackedBits[] encoded, int from, int to) {
+            this.input = input;
+            this.encoded = encoded;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new EncodeBlocks(input, encoded, from, mid),
+                        new EncodeBlocks(input, encoded, mid, to));
+            } else if (to > from) {
+                int start = from * blockChars;
+                int end = (int) Math.min((long) start + blockChars, input.length());
+                BitWriter writer = new BitWriter((end - start) / 2);
+                huffman.encode(input, start, end, writer);
+                encoded[from] = writer.toPackedBits();
+            }
+        }
+    }
+
+    private class DecodeBlocks extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final HuffmanBlocks blocks;
+        private final char[] out;
+        private final int from;
+        private final int to;
+
+        DecodeBlocks(HuffmanBlocks blocks, char[] out, int from, int to) {
+            this.blocks = blocks;
+            this.out = out;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new DecodeBlocks(blocks, out, from, mid),
+                        new DecodeBlocks(blocks, out, mid, to));
+            } else if (to > from) {
+                decodeBlock(blocks, from, out);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class ParallelHuffmanTest {
+
+    private static final String SEED = "the quick brown fox jumps over the lazy dog.\n";
+
+    private static String randomText(int length) {
+        Random random = new Random(11);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(SEED.charAt(random.nextInt(SEED.length())));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testMatchesSequential() {
+        Huffman huff = new Huffman(SEED);
+        String text = randomText(100003);
+        ParallelHuffman parallel = new ParallelHuffman(huff, new ForkJoinPool(4), 1000);
+        HuffmanBlocks blocks = parallel.compress(text);
+        assertEquals(101, blocks.blockCount());
+        assertEquals(text.length(), blocks.length());
+        PackedBits sequential = huff.compressPacked(text);
+        assertEquals(sequential.bitLength(), blocks.bits().bitLength());
+        assertArrayEquals(sequential.toByteArray(), blocks.bits().toByteArray());
+        assertEquals(sequential.bitLength(), blocks.bitOffset(blocks.blockCount()));
+        assertEquals(text, parallel.decompress(blocks));
+    }
+
+    @Test
+    public void testBlockOffsets() {
+        Huffman huff = new Huffman(SEED);
+        String text = randomText(250);
+        HuffmanBlocks blocks = new ParallelHuffman(huff, ForkJoinPool.commonPool(), 100)
+                .compress(text);
+        assertEquals(3, blocks.blockCount());
+        for (int i = 0; i <= blocks.blockCount(); i++) {
+            String prefix = text.substring(0, Math.min(i * 100, text.length()));
+            assertEquals(huff.compress(prefix).length(), blocks.bitOffset(i));
+        }
+    }
+
+    @Test
+    public void testEmptyInput() {
+        ParallelHuffman parallel = new ParallelHuffman(new Huffman(SEED));
+        HuffmanBlocks blocks = parallel.compress("");
+        assertEquals(0, blocks.blockCount());
+        assertEquals("", parallel.decompress(blocks));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testNotCompressible() {
+        new ParallelHuffman(new Huffman(SEED)).compress(randomText(200000) + "X");
+    }
+}
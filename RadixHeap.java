@@ -0,0 +1,143 @@
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A monotone priority queue of {@code int} values with non-negative {@code long} keys, for
+ * workloads such as Huffman tree construction where no key added is ever smaller than the
+ * last key extracted.
+ * <p>
+ * Elements are kept in 65 unsorted buckets by the highest bit in which their key differs from
+ * the last extracted key: bucket 0 holds keys equal to it and bucket b keys that first differ
+ * in bit b - 1. Adding is O(1). Extracting from an empty bucket 0 finds the smallest key in
+ * the lowest non-empty bucket, makes it the new last key and redistributes that bucket into
+ * strictly lower ones, so each element moves at most 64 times over its lifetime and no key is
+ * ever compared against more than one bucket's worth of others.
+ * <p>
+ * Keys do not have to be distinct, and ties are broken arbitrarily.
+ */
+public class RadixHeap implements MinQueue {
+
+    private static final int BUCKETS = 65;
+    private static final int INITIAL_BUCKET_CAPACITY = 4;
+
+    private final long[][] keys = new long[BUCKETS][];
+    private final int[][] values = new int[BUCKETS][];
+    private final int[] counts = new int[BUCKETS];
+    private long last;
+    private int size;
+
+    public RadixHeap() {
+        for (int b = 0; b < BUCKETS; b++) {
+            keys[b] = new long[INITIAL_BUCKET_CAPACITY];
+            values[b] = new int[INITIAL_BUCKET_CAPACITY];
+        }
+    }
+
+    /**
+     * Runtime: O(1)
+     *
+     * @return the number of elements in the queue
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Runtime: O(1)
+     *
+     * @return true if the queue is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Runtime: amortized O(1)
+     *
+     * @param key   the priority key to associate with the value
+     * @param value the value to insert
+     * @throws IllegalArgumentException if key is smaller than the last key extracted, or
+     *                                  negative
+     */
+    @Override
+    public void add(long key, int value) {
+        if (key < last) {
+            throw new IllegalArgumentException("key is less than the last extracted key");
+        }
+        push(bucket(key), key, value);
+        size++;
+    }
+
+    /**
+     * Runtime: amortized O(1)
+     *
+     * @return the smallest key in the queue
+     * @throws NoSuchElementException if the queue is empty
+     */
+    @Override
+    public long peekKey() {
+        pull();
+        return last;
+    }
+
+    /**
+     * Removes the value with the smallest key; later keys may not be smaller than this one.
+     * <p>
+     * Runtime: amortized O(log C) for keys up to C
+     *
+     * @return the value with the smallest key
+     * @throws NoSuchElementException if the queue is empty
+     */
+    @Override
+    public int extractMin() {
+        pull();
+        size--;
+        return values[0][--counts[0]];
+    }
+
+    private int bucket(long key) {
+        return 64 - Long.numberOfLeadingZeros(key ^ last);
+    }
+
+    private void push(int b, long key, int value) {
+        int n = counts[b];
+        if (n == keys[b].length) {
+            keys[b] = Arrays.copyOf(keys[b], 2 * n);
+            values[b] = Arrays.copyOf(values[b], 2 * n);
+        }
+        keys[b][n] = key;
+        values[b][n] = value;
+        counts[b] = n + 1;
+    }
+
+    /**
+     * Makes sure bucket 0 holds the smallest key, redistributing the lowest non-empty bucket
+     * if it is empty.
+     */
+    private void pull() {
+        if (size == 0) {
+            throw new NoSuchElementException("heap is empty");
+        }
+        if (counts[0] > 0) {
+            return;
+        }
+        int b = 1;
+        while (counts[b] == 0) {
+            b++;
+        }
+        long[] bucketKeys = keys[b];
+        int[] bucketValues = values[b];
+        int n = counts[b];
+        long min = bucketKeys[0];
+        for (int i = 1; i < n; i++) {
+            min = Math.min(min, bucketKeys[i]);
+        }
+        last = min;
+        // Every key in bucket b now differs from last below bit b - 1, so it lands lower.
+        counts[b] = 0;
+        for (int i = 0; i < n; i++) {
+            push(bucket(bucketKeys[i]), bucketKeys[i], bucketValues[i]);
+        }
+    }
+}
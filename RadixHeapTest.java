@@ -0,0 +1,90 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class RadixHeapTest {
+
+    @Test
+    public void testExtractInOrder() {
+        RadixHeap minHeap = new RadixHeap();
+        assertTrue(minHeap.isEmpty());
+        minHeap.add(45, 5);
+        minHeap.add(13, 3);
+        minHeap.add(5, 0);
+        minHeap.add(16, 4);
+        minHeap.add(9, 1);
+        minHeap.add(12, 2);
+        for (int i = 0; i < 6; i++) {
+            assertEquals(i, minHeap.extractMin());
+        }
+        assertTrue(minHeap.isEmpty());
+    }
+
+    @Test
+    public void testMonotoneRandom() {
+        Random random = new Random(8);
+        RadixHeap minHeap = new RadixHeap();
+        PriorityQueue<Long> reference = new PriorityQueue<>();
+        long last = 0;
+        for (int step = 0; step < 20000; step++) {
+            if (reference.isEmpty() || random.nextInt(3) != 0) {
+                long key = last + (random.nextBoolean() ? random.nextInt(100)
+                        : random.nextLong() >>> 20);
+                minHeap.add(key, step);
+                reference.add(key);
+            } else {
+                last = reference.poll();
+                assertEquals(last, minHeap.peekKey());
+                minHeap.extractMin();
+            }
+            assertEquals(reference.size(), minHeap.size());
+        }
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testKeyBelowLastExtracted() {
+        RadixHeap minHeap = new RadixHeap();
+        minHeap.add(10, 0);
+        minHeap.add(20, 1);
+        minHeap.extractMin();
+        minHeap.add(9, 2);
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testNegativeKey() {
+        new RadixHeap().add(-1, 0);
+    }
+
+    @Test (expected = NoSuchElementException.class)
+    public void testExtractEmpty() {
+        new RadixHeap().extractMin();
+    }
+
+    @Test
+    public void testHuffmanRadix() {
+        Map<Character, Integer> alphabet = new HashMap<>();
+        alphabet.put('a', 5);
+        alphabet.put('b', 9);
+        alphabet.put('c', 12);
+        alphabet.put('d', 13);
+        alphabet.put('e', 16);
+        alphabet.put('f', 45);
+        Huffman huff = new Huffman(alphabet, Huffman.Construction.RADIX);
+        assertEquals(new Huffman(alphabet).compress("abcdef"), huff.compress("abcdef"));
+
+        Random random = new Random(4);
+        alphabet.clear();
+        for (int i = 0; i < 5000; i++) {
+            alphabet.put((char) (0x4e00 + i), 1 + random.nextInt(50));
+        }
+        Huffman heap = new Huffman(alphabet, Huffman.Construction.HEAP);
+        Huffman radix = new Huffman(alphabet, Huffman.Construction.RADIX);
+        assertEquals(heap.expectedEncodingLength(), radix.expectedEncodingLength(), 1e-12);
+    }
+}
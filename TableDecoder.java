@@ -0,0 +1,134 @@
+import java.util.Arrays;
+
+/**
+ * Decodes a prefix code by table lookup rather than by walking a tree one bit at a time.
+ * <p>
+ * A primary table indexed by the next {@link #PRIMARY_BITS} bits resolves every code of that
+ * length or shorter in a single lookup. Longer codes land on a link entry pointing to a
+ * secondary table indexed by the following bits, and so on until the code is resolved. All
+ * tables live in one {@code int[]}; each entry packs
+ * <ul>
+ *     <li>bits 0-5: for a symbol, the number of bits of this level the code uses; for a link,
+ *     the index width of the table it points to</li>
+ *     <li>bit 6: set for a link</li>
+ *     <li>bits 7-31: the symbol, or the offset of the linked table</li>
+ * </ul>
+ * An all-zero entry marks a bit pattern no code starts with.
+ */
+final class TableDecoder {
+
+    static final int PRIMARY_BITS = 10;
+    static final int SECONDARY_BITS = 8;
+
+    private static final int LINK = 1 << 6;
+    private static final int MAX_PAYLOAD = (1 << 25) - 1;
+
+    private int[] table;
+    private int used;
+    private final int primaryBits;
+
+    /**
+     * Builds the lookup tables for a codebook.
+     *
+     * @param codebook the code to decode, with every length between 1 and
+     *                 {@link Codebook#MAX_CODE_LENGTH}
+     * @throws IllegalArgumentException if the tables would be too large to index
+     */
+    TableDecoder(Codebook codebook) {
+        int n = codebook.size();
+        long[] aligned = new long[n];
+        for (int i = 0; i < n; i++) {
+            aligned[i] = codebook.codes[i] << (64 - codebook.lengths[i]);
+        }
+        // Sort by left-aligned code so that codes sharing a prefix are contiguous.
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compareUnsigned(aligned[a], aligned[b]));
+        long[] sortedCodes = new long[n];
+        int[] sortedLengths = new int[n];
+        int[] sortedSymbols = new int[n];
+        for (int i = 0; i < n; i++) {
+            sortedCodes[i] = aligned[order[i]];
+            sortedLengths[i] = codebook.lengths[order[i]];
+            sortedSymbols[i] = codebook.symbols[order[i]];
+        }
+        this.primaryBits = Math.min(PRIMARY_BITS, codebook.maxLength());
+        this.table = new int[1 << primaryBits];
+        build(sortedCodes, sortedLengths, sortedSymbols, 0, n, 0, primaryBits);
+        this.table = Arrays.copyOf(table, used);
+    }
+
+    private int build(long[] codes, int[] lengths, int[] symbols,
+                      int lo, int hi, int depth, int bits) {
+        int base = allocate(1 << bits);
+        int i = lo;
+        while (i < hi) {
+            int index = (int) ((codes[i] << depth) >>> (64 - bits));
+            int rest = lengths[i] - depth;
+            if (rest <= bits) {
+                int entry = (symbols[i] << 7) | rest;
+                int span = 1 << (bits - rest);
+                Arrays.fill(table, base + index, base + index + span, entry);
+                i++;
+            } else {
+                int j = i;
+                int longest = 0;
+                while (j < hi && (int) ((codes[j] << depth) >>> (64 - bits)) == index) {
+                    longest = Math.max(longest, lengths[j]);
+                    j++;
+                }
+                int subBits = Math.min(SECONDARY_BITS, longest - depth - bits);
+                int sub = build(codes, lengths, symbols, i, j, depth + bits, subBits);
+                table[base + index] = (sub << 7) | LINK | subBits;
+                i = j;
+            }
+        }
+        return base;
+    }
+
+    private int allocate(int size) {
+        if (used + size > MAX_PAYLOAD) {
+            throw new IllegalArgumentException("code is too large for table decoding");
+        }
+        if (used + size > table.length) {
+            table = Arrays.copyOf(table, Math.max(table.length * 2, used + size));
+        }
+        int base = used;
+        used += size;
+        return base;
+    }
+
+    /**
+     * Decodes the next symbol from the reader.
+     *
+     * @param reader the bits to decode
+     * @return the decoded symbol
+     * @throws IllegalArgumentException if the next bits are not the start of any code, or the
+     *                                  input ends in the middle of a code
+     */
+    int decode(BitReader reader) {
+        int base = 0;
+        int bits = primaryBits;
+        while (true) {
+            int entry = table[base + (int) reader.peek(bits)];
+            int n = entry & 63;
+            if ((entry & LINK) == 0) {
+                if (n == 0 || n > reader.remaining()) {
+                    throw new IllegalArgumentException("input contains sequence " +
+                            "that is not decodable");
+                }
+                reader.skip(n);
+                return entry >>> 7;
+            }
+            if (bits > reader.remaining()) {
+                throw new IllegalArgumentException("input contains sequence " +
+                        "that is not decodable");
+            }
+            reader.skip(bits);
+            base = entry >>> 7;
+            bits = n;
+        }
+    }
+}
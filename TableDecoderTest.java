@@ -0,0 +1,88 @@
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class TableDecoderTest {
+
+    private static BitReader bits(String s) {
+        BitWriter writer = new BitWriter();
+        for (int i = 0; i < s.length(); i++) {
+            writer.write(s.charAt(i) - '0', 1);
+        }
+        return new BitReader(writer.toPackedBits());
+    }
+
+    @Test
+    public void testShortCodes() {
+        Codebook codebook = new Codebook(new int[] {'a', 'b', 'c'},
+                new long[] {0b0, 0b10, 0b11}, new byte[] {1, 2, 2});
+        TableDecoder decoder = new TableDecoder(codebook);
+        BitReader reader = bits("0111000");
+        assertEquals('a', decoder.decode(reader));
+        assertEquals('c', decoder.decode(reader));
+        assertEquals('b', decoder.decode(reader));
+        assertEquals('a', decoder.decode(reader));
+        assertEquals('a', decoder.decode(reader));
+        assertEquals(0, reader.remaining());
+    }
+
+    @Test
+    public void testCodesLongerThanPrimaryTable() {
+        // unary-style code: 0, 10, 110, ..., 1{39}0, 1{40}
+        int n = 41;
+        int[] symbols = new int[n];
+        long[] codes = new long[n];
+        byte[] lengths = new byte[n];
+        for (int i = 0; i < n; i++) {
+            symbols[i] = 1000 + i;
+            lengths[i] = (byte) Math.min(i + 1, n - 1);
+            codes[i] = i == n - 1 ? (1L << (n - 1)) - 1 : ((1L << i) - 1) << 1;
+        }
+        TableDecoder decoder = new TableDecoder(new Codebook(symbols, codes, lengths));
+        BitWriter writer = new BitWriter();
+        for (int i = n - 1; i >= 0; i--) {
+            writer.write(codes[i], lengths[i]);
+        }
+        BitReader reader = new BitReader(writer.toPackedBits());
+        for (int i = n - 1; i >= 0; i--) {
+            assertEquals(1000 + i, decoder.decode(reader));
+        }
+        assertEquals(0, reader.remaining());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testTruncatedCode() {
+        Codebook codebook = new Codebook(new int[] {'a', 'b', 'c'},
+                new long[] {0b0, 0b10, 0b11}, new byte[] {1, 2, 2});
+        new TableDecoder(codebook).decode(bits("1"));
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testUnassignedPattern() {
+        Codebook codebook = new Codebook(new int[] {'a', 'b'},
+                new long[] {0b0, 0b10}, new byte[] {1, 2});
+        new TableDecoder(codebook).decode(bits("11"));
+    }
+
+    @Test
+    public void testFibonacciHuffmanRoundTrip() {
+        Map<Character, Integer> alphabet = new HashMap<>();
+        int a = 1;
+        int b = 1;
+        StringBuilder all = new StringBuilder();
+        for (char c = 'A'; c < 'A' + 30; c++) {
+            alphabet.put(c, a);
+            int next = a + b;
+            a = b;
+            b = next;
+            all.append(c);
+        }
+        Huffman huff = new Huffman(alphabet);
+        String input = all.toString() + all.reverse();
+        assertEquals(input, huff.decompress(huff.compress(input)));
+        assertEquals(input, huff.decompressPacked(huff.compressPacked(input)));
+    }
+}
@@ -0,0 +1,99 @@
+import java.util.Arrays;
+
+/**
+ * Builds Huffman code lengths in linear time once the leaf frequencies are sorted, using the
+ * classic two-queue method. Leaves wait in one queue in ascending order; every merge appends
+ * its result to a second queue, which is therefore also ascending, so the two smallest
+ * remaining weights are always at the fronts of the queues and no heap is needed.
+ * <p>
+ * Frequencies are sorted with a counting sort when the largest is small next to the number of
+ * symbols, and with a primitive comparison sort otherwise. The tree is kept as a parent array,
+ * so a build allocates a handful of arrays and no per-node objects.
+ */
+final class TwoQueue {
+
+    /**
+     * Counting sort is used while the largest frequency is at most this many times the number
+     * of symbols, which bounds its count array to a small multiple of the input.
+     */
+    static final int COUNTING_SORT_FACTOR = 8;
+
+    private TwoQueue() {
+    }
+
+    /**
+     * @param freqs the positive frequency of each symbol, at least 2 of them
+     * @return the Huffman code length of each symbol, in the same order as freqs
+     */
+    static byte[] codeLengths(int[] freqs) {
+        int n = freqs.length;
+        int[] order = sortedOrder(freqs);
+
+        // Nodes 0..n-1 are the leaves in ascending order, nodes n..2n-2 the merges in the order
+        // they are made, which is also ascending.
+        int[] parent = new int[2 * n - 1];
+        long[] merged = new long[n - 1];
+        int leaf = 0;
+        int front = 0;
+        for (int k = 0; k < n - 1; k++) {
+            long weight = 0;
+            for (int pick = 0; pick < 2; pick++) {
+                if (leaf < n && (front == k || freqs[order[leaf]] <= merged[front])) {
+                    weight += freqs[order[leaf]];
+                    parent[leaf++] = n + k;
+                } else {
+                    weight += merged[front];
+                    parent[n + front++] = n + k;
+                }
+            }
+            merged[k] = weight;
+        }
+
+        // Parents always have higher numbers than their children, so one backward pass
+        // assigns every depth.
+        int[] depth = new int[2 * n - 1];
+        for (int node = 2 * n - 3; node >= 0; node--) {
+            depth[node] = depth[parent[node]] + 1;
+        }
+        byte[] lengths = new byte[n];
+        for (int i = 0; i < n; i++) {
+            lengths[order[i]] = (byte) depth[i];
+        }
+        return lengths;
+    }
+
+    /**
+     * @param freqs non-negative frequencies
+     * @return the indexes of freqs ordered by ascending frequency, ties by ascending index
+     */
+    static int[] sortedOrder(int[] freqs) {
+        int n = freqs.length;
+        int max = 0;
+        for (int freq : freqs) {
+            max = Math.max(max, freq);
+        }
+        int[] order = new int[n];
+        if (max <= (long) COUNTING_SORT_FACTOR * n) {
+            int[] starts = new int[max + 2];
+            for (int freq : freqs) {
+                starts[freq + 1]++;
+            }
+            for (int f = 1; f < starts.length; f++) {
+                starts[f] += starts[f - 1];
+            }
+            for (int i = 0; i < n; i++) {
+                order[starts[freqs[i]]++] = i;
+            }
+        } else {
+            long[] keyed = new long[n];
+            for (int i = 0; i < n; i++) {
+                keyed[i] = ((long) freqs[i] << 32) | i;
+            }
+            Arrays.sort(keyed);
+            for (int i = 0; i < n; i++) {
+                order[i] = (int) keyed[i];
+            }
+        }
+        return order;
+    }
+}
@@ -0,0 +1,66 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class TwoQueueTest {
+
+    private static long cost(int[] freqs, byte[] lengths) {
+        long cost = 0;
+        for (int i = 0; i < freqs.length; i++) {
+            cost += (long) freqs[i] * lengths[i];
+        }
+        return cost;
+    }
+
+    @Test
+    public void testSortedOrder() {
+        assertArrayEquals(new int[] {1, 3, 0, 2}, TwoQueue.sortedOrder(new int[] {2, 1, 5, 1}));
+        assertArrayEquals(new int[] {1, 3, 0, 2},
+                TwoQueue.sortedOrder(new int[] {2000, 1, 5000, 1}));
+    }
+
+    @Test
+    public void testCodeLengths() {
+        int[] freqs = {5, 9, 12, 13, 16, 45};
+        assertArrayEquals(new byte[] {4, 4, 3, 3, 3, 1}, TwoQueue.codeLengths(freqs));
+        assertArrayEquals(new byte[] {1, 1}, TwoQueue.codeLengths(new int[] {7, 3}));
+    }
+
+    @Test
+    public void testMatchesHeapConstruction() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 40; trial++) {
+            int n = 2 + random.nextInt(300);
+            int bound = trial % 2 == 0 ? 4 : 1_000_000;
+            int[] freqs = new int[n];
+            Map<Character, Integer> alphabet = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                freqs[i] = 1 + random.nextInt(bound);
+                alphabet.put((char) ('!' + i), freqs[i]);
+            }
+            Huffman heap = new Huffman(alphabet, Huffman.Construction.HEAP);
+            Huffman twoQueue = new Huffman(alphabet, Huffman.Construction.TWO_QUEUE);
+            assertEquals(heap.expectedEncodingLength() * heap.sum,
+                    cost(freqs, TwoQueue.codeLengths(freqs)), 1e-6);
+            assertEquals(heap.expectedEncodingLength(), twoQueue.expectedEncodingLength(), 1e-12);
+        }
+    }
+
+    @Test
+    public void testHuffmanTwoQueue() {
+        String seed = "the quick brown fox jumps over the lazy dog";
+        Huffman huff = new Huffman(seed, Huffman.Construction.TWO_QUEUE);
+        assertTrue(huff.isCanonical());
+        assertEquals(seed, huff.decompress(huff.compress(seed)));
+        assertEquals(new Huffman(seed).compress(seed).length(), huff.compress(seed).length());
+    }
+
+    @Test (expected = IllegalArgumentException.class)
+    public void testNullConstruction() {
+        new Huffman("abc", (Huffman.Construction) null);
+    }
+}
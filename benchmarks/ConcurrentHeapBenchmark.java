@@ -0,0 +1,73 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures scheduler-style throughput of {@link ConcurrentMinHeap} against a {@link
+ * BinaryMinHeapImpl} behind one global lock. Every operation adds a task with a random
+ * priority and then takes the most urgent one, so the heap stays at its prefilled size.
+ * Run with {@code -t 1,2,4,8} to see how each scales with threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class ConcurrentHeapBenchmark {
+
+    @Param({"locked", "concurrent"})
+    public String heap;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    BinaryMinHeap<Integer, Long> minHeap;
+    final AtomicLong nextValue = new AtomicLong();
+
+    @Setup(Level.Iteration)
+    public void prefill() {
+        minHeap = heap.equals("locked") ? new LockedMinHeap<>() : new ConcurrentMinHeap<>();
+        nextValue.set(0);
+        for (int i = 0; i < size; i++) {
+            minHeap.add(ThreadLocalRandom.current().nextInt(), nextValue.getAndIncrement());
+        }
+    }
+
+    @Benchmark
+    public BinaryMinHeap.Entry<Integer, Long> addThenExtract() {
+        minHeap.add(ThreadLocalRandom.current().nextInt(), nextValue.getAndIncrement());
+        return minHeap.extractMin();
+    }
+
+    /**
+     * The global-lock baseline.
+     */
+    static final class LockedMinHeap<Key extends Comparable<Key>, V>
+            extends BinaryMinHeapImpl<Key, V> {
+
+        @Override
+        public synchronized void add(Key key, V value) {
+            super.add(key, value);
+        }
+
+        @Override
+        public synchronized BinaryMinHeap.Entry<Key, V> extractMin() {
+            return super.extractMin();
+        }
+    }
+}
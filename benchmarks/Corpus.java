@@ -0,0 +1,136 @@
+import java.util.Random;
+
+/**
+ * Synthetic benchmark inputs with different symbol distributions. Each corpus is generated
+ * from a fixed seed, so runs are comparable.
+ */
+public enum Corpus {
+    /**
+     * 64 printable characters, equally likely: codes are all about 6 bits.
+     */
+    UNIFORM {
+        @Override
+        String generate(int length, Random random) {
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                chars[i] = (char) (' ' + random.nextInt(64));
+            }
+            return new String(chars);
+        }
+    },
+    /**
+     * 4096 CJK characters with Zipfian frequencies (exponent 1), like word tokens: a large
+     * alphabet with a long tail of rare symbols.
+     */
+    ZIPFIAN {
+        @Override
+        String generate(int length, Random random) {
+            int n = 4096;
+            double[] cumulative = new double[n];
+            double total = 0;
+            for (int r = 0; r < n; r++) {
+                total += 1.0 / (r + 1);
+                cumulative[r] = total;
+            }
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                double u = random.nextDouble() * total;
+                int lo = 0;
+                int hi = n - 1;
+                while (lo < hi) {
+                    int mid = (lo + hi) >>> 1;
+                    if (cumulative[mid] < u) {
+                        lo = mid + 1;
+                    } else {
+                        hi = mid;
+                    }
+                }
+                chars[i] = (char) (0x4e00 + lo);
+            }
+            return new String(chars);
+        }
+    },
+    /**
+     * English prose, built from the sentences of a public-domain passage in random order.
+     */
+    ENGLISH {
+        @Override
+        String generate(int length, Random random) {
+            StringBuilder text = new StringBuilder(length + 256);
+            while (text.length() < length) {
+                text.append(SENTENCES[random.nextInt(SENTENCES.length)]).append(' ');
+            }
+            return text.substring(0, length);
+        }
+    },
+    /**
+     * Characters sampled from 30 symbols whose probabilities follow the Fibonacci sequence, a
+     * heavily skewed distribution that gives deep codes. Being sampled, the text holds only
+     * the symbols it happens to draw, so the code depth grows with the length rather than
+     * reaching the 29 bits of exact Fibonacci counts.
+     */
+    FIBONACCI {
+        @Override
+        String generate(int length, Random random) {
+            int n = 30;
+            long[] cumulative = new long[n];
+            long a = 1;
+            long b = 1;
+            long total = 0;
+            for (int i = 0; i < n; i++) {
+                total += a;
+                cumulative[i] = total;
+                long next = a + b;
+                a = b;
+                b = next;
+            }
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++) {
+                long u = (long) (random.nextDouble() * total);
+                int c = 0;
+                while (cumulative[c] <= u) {
+                    c++;
+                }
+                chars[i] = (char) ('A' + c);
+            }
+            return new String(chars);
+        }
+    };
+
+    private static final String[] SENTENCES = {
+        "It was the best of times, it was the worst of times, it was the age of wisdom, it was"
+            + " the age of foolishness, it was the epoch of belief, it was the epoch of"
+            + " incredulity, it was the season of Light, it was the season of Darkness, it was"
+            + " the spring of hope, it was the winter of despair, we had everything before us,"
+            + " we had nothing before us, we were all going direct to Heaven, we were all going"
+            + " direct the other way.",
+        "In short, the period was so far like the present period, that some of its noisiest"
+            + " authorities insisted on its being received, for good or for evil, in the"
+            + " superlative degree of comparison only.",
+        "There were a king with a large jaw and a queen with a plain face, on the throne of"
+            + " England; there were a king with a large jaw and a queen with a fair face, on the"
+            + " throne of France.",
+        "In both countries it was clearer than crystal to the lords of the State preserves of"
+            + " loaves and fishes, that things in general were settled for ever.",
+        "It was the year of Our Lord one thousand seven hundred and seventy-five.",
+        "Spiritual revelations were conceded to England at that favoured period, as at this.",
+        "France, less favoured on the whole as to matters spiritual than her sister of the"
+            + " shield and trident, rolled with exceeding smoothness down hill, making paper"
+            + " money and spending it.",
+    };
+
+    /**
+     * @param length the number of characters to generate
+     * @param random the source of randomness
+     * @return a string of exactly length characters
+     */
+    abstract String generate(int length, Random random);
+
+    /**
+     * @param length the number of characters to generate
+     * @return the corpus of that length generated from a fixed seed
+     */
+    String generate(int length) {
+        return generate(length, new Random(42));
+    }
+}
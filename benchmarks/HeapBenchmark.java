@@ -0,0 +1,145 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link BinaryMinHeapImpl} with {@link DaryMinHeap} of several arities.
+ * <p>
+ * {@code fill} and {@code drain} measure building and emptying a heap of {@code size} random
+ * keys; {@code churn} measures a scheduler-like steady state, where a heap of {@code size}
+ * entries repeatedly gives up its minimum and takes a later key, and {@code decreaseKey}
+ * lowers the keys of random entries of such a heap, as Dijkstra-style searches do. The d-ary
+ * heaps sift through fewer levels, which can pay off on drain and churn for large heaps. Their
+ * keys are boxed and every move updates a {@code HashMap}, as in {@link DaryMinHeap}, so no
+ * gain from locality is expected.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeapBenchmark {
+
+    static final int CHURN_OPS = 1 << 16;
+
+    @Param({"binary", "4-ary", "8-ary"})
+    public String heap;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    Integer[] keys;
+    Integer[] values;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        Random random = new Random(42);
+        keys = new Integer[size + CHURN_OPS];
+        values = new Integer[size + CHURN_OPS];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(Integer.MAX_VALUE / 2);
+            values[i] = i;
+        }
+    }
+
+    /**
+     * A heap of the first {@code size} keys, rebuilt before every invocation of the benchmarks
+     * that consume or modify it. Invocation-level setup is costly for the smallest heaps, so
+     * their times carry some fixed overhead; compare them across heaps rather than absolutely.
+     */
+    @State(Scope.Thread)
+    public static class Filled {
+        BinaryMinHeap<Integer, Integer> heap;
+        // The keys of heap as decreaseKey lowers them.
+        Integer[] current;
+
+        @Setup(Level.Invocation)
+        public void refill(HeapBenchmark bench) {
+            heap = newHeap(bench.heap);
+            for (int i = 0; i < bench.size; i++) {
+                heap.add(bench.keys[i], bench.values[i]);
+            }
+            current = Arrays.copyOf(bench.keys, bench.size);
+        }
+    }
+
+    static <V> BinaryMinHeap<Integer, V> newHeap(String heap) {
+        switch (heap) {
+            case "binary":
+                return new BinaryMinHeapImpl<>();
+            case "4-ary":
+                return new DaryMinHeap<>(4);
+            case "8-ary":
+                return new DaryMinHeap<>(8);
+            default:
+                throw new IllegalArgumentException("unknown heap " + heap);
+        }
+    }
+
+    @Benchmark
+    public BinaryMinHeap<Integer, Integer> fill() {
+        BinaryMinHeap<Integer, Integer> h = newHeap(heap);
+        for (int i = 0; i < size; i++) {
+            h.add(keys[i], values[i]);
+        }
+        return h;
+    }
+
+    @Benchmark
+    public BinaryMinHeap<Integer, Integer> bulkFill() {
+        ArrayList<BinaryMinHeap.Entry<Integer, Integer>> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(new BinaryMinHeap.Entry<>(keys[i], values[i]));
+        }
+        BinaryMinHeap<Integer, Integer> h = newHeap(heap);
+        h.addAll(entries);
+        return h;
+    }
+
+    @Benchmark
+    public void drain(Filled filled, Blackhole blackhole) {
+        BinaryMinHeap<Integer, Integer> full = filled.heap;
+        while (!full.isEmpty()) {
+            blackhole.consume(full.extractMin());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHURN_OPS)
+    public void churn(Filled filled, Blackhole blackhole) {
+        BinaryMinHeap<Integer, Integer> full = filled.heap;
+        for (int i = size; i < size + CHURN_OPS; i++) {
+            BinaryMinHeap.Entry<Integer, Integer> min = full.extractMin();
+            full.add(min.key + keys[i], values[i]);
+            blackhole.consume(min);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHURN_OPS)
+    public void decreaseKey(Filled filled) {
+        BinaryMinHeap<Integer, Integer> full = filled.heap;
+        Integer[] current = filled.current;
+        for (int i = 0; i < CHURN_OPS; i++) {
+            int value = keys[size + i] % size;
+            current[value] = current[value] - (keys[i] & 0xffff);
+            full.decreaseKey(values[value], current[value]);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures compression and decompression through the bit-string and packed APIs, on each
+ * {@link Corpus} at several sizes, with a codebook built from the corpus itself. Times are per
+ * call; divide by {@code length} for per-character cost. Construction is measured by {@link
+ * HuffmanConstructionBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class HuffmanBenchmark {
+
+    @Param({"UNIFORM", "ZIPFIAN", "ENGLISH", "FIBONACCI"})
+    public Corpus corpus;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int length;
+
+    String input;
+    Huffman huffman;
+    String compressed;
+    PackedBits packed;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        input = corpus.generate(length);
+        huffman = new Huffman(input);
+        compressed = huffman.compress(input);
+        packed = huffman.compressPacked(input);
+    }
+
+    @Benchmark
+    public String compress() {
+        return huffman.compress(input);
+    }
+
+    @Benchmark
+    public PackedBits compressPacked() {
+        return huffman.compressPacked(input);
+    }
+
+    @Benchmark
+    public String decompress() {
+        return huffman.decompress(compressed);
+    }
+
+    @Benchmark
+    public String decompressPacked() {
+        return huffman.decompressPacked(packed);
+    }
+}
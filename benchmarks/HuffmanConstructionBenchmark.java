@@ -0,0 +1,61 @@
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link Huffman} construction from a seed and from a frequency map with each
+ * {@link Huffman.Construction}, on each {@link Corpus} at several sizes. The corpus is also
+ * the seed, so construction from a seed includes counting it. Compression and decompression,
+ * which do not depend on how the codebook was built, are in {@link HuffmanBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class HuffmanConstructionBenchmark {
+
+    @Param({"UNIFORM", "ZIPFIAN", "ENGLISH", "FIBONACCI"})
+    public Corpus corpus;
+
+    @Param({"10000", "1000000", "10000000"})
+    public int length;
+
+    @Param({"HEAP", "TWO_QUEUE", "RADIX"})
+    public Huffman.Construction construction;
+
+    String input;
+    Map<Character, Integer> frequencies;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        input = corpus.generate(length);
+        frequencies = new HashMap<>();
+        for (int i = 0; i < input.length(); i++) {
+            frequencies.merge(input.charAt(i), 1, Integer::sum);
+        }
+    }
+
+    @Benchmark
+    public Huffman constructFromSeed() {
+        return new Huffman(input, construction);
+    }
+
+    @Benchmark
+    public Huffman constructFromMap() {
+        return new Huffman(frequencies, construction);
+    }
+}
@@ -0,0 +1,66 @@
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares decoding one packed stream with {@link InterleavedHuffman} decoding of the same
+ * input split into 1 to 8 streams, on one thread. A single interleaved stream measures the
+ * framing overhead alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class InterleavedBenchmark {
+
+    @Param({"UNIFORM", "ZIPFIAN", "ENGLISH", "FIBONACCI"})
+    public Corpus corpus;
+
+    @Param({"1000000"})
+    public int length;
+
+    @Param({"1", "2", "4", "8"})
+    public int streams;
+
+    String input;
+    Huffman huffman;
+    InterleavedHuffman interleaved;
+    PackedBits packed;
+    PackedBits interleavedBits;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        input = corpus.generate(length);
+        huffman = new Huffman(input, Huffman.Construction.TWO_QUEUE);
+        interleaved = new InterleavedHuffman(huffman, streams);
+        packed = huffman.compressPacked(input);
+        interleavedBits = interleaved.compress(input);
+    }
+
+    @Benchmark
+    public String decompressSingle() {
+        return huffman.decompressPacked(packed);
+    }
+
+    @Benchmark
+    public String decompressInterleaved() {
+        return interleaved.decompress(interleavedBits);
+    }
+
+    @Benchmark
+    public PackedBits compressInterleaved() {
+        return interleaved.compress(input);
+    }
+}